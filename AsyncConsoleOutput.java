@@ -0,0 +1,84 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The AsyncConsoleOutput class writes messages to the console in large batches. Messages are collected in a buffer,
+ * and a full buffer is handed to a background writer thread, so the thread producing the messages never waits for
+ * the console. Messages are only guaranteed to reach the console once flush() is called, which the game does before
+ * waiting for the input of a human player and at the end of a competition. The messages are written to whatever
+ * System.out is at the time they are written.
+ */
+public class AsyncConsoleOutput implements MessageOutput {
+
+	/** The number of characters collected before they are handed to the writer thread. */
+	private static final int BUFFER_CAPACITY = 1 << 16;
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+	private static final String WRITER_THREAD_NAME = "console-writer";
+
+	private static final AsyncConsoleOutput instance = new AsyncConsoleOutput();
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, WRITER_THREAD_NAME);
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final StringBuilder buffer = new StringBuilder(BUFFER_CAPACITY);
+	private Future<?> lastWrite; //the last batch handed to the writer, null if there was none.
+
+	private AsyncConsoleOutput(){
+		//messages which were never flushed are still written when the program ends.
+		Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+	}
+
+	/**
+	 * @return the output of the console, shared by the whole program.
+	 */
+	public static AsyncConsoleOutput getInstance(){
+		return instance;
+	}
+
+	@Override
+	public synchronized void println(String message){
+		buffer.append(message).append(LINE_SEPARATOR);
+		if (buffer.length() >= BUFFER_CAPACITY){
+			handOver();
+		}
+	}
+
+	@Override
+	public void flush(){
+		Future<?> pending;
+		synchronized (this){
+			handOver();
+			pending = lastWrite;
+		}
+		if (pending == null){
+			return;
+		}
+		try {
+			//the writer writes the batches in order, so once the last one is written all of them are.
+			pending.get();
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e){
+			//printing to System.out does not throw, so there is nothing to recover from here.
+		}
+	}
+
+	/**
+	 * Hands the messages in the buffer to the writer thread, and empties the buffer.
+	 */
+	private void handOver(){
+		if (buffer.length() == 0){
+			return;
+		}
+		String batch = buffer.toString();
+		buffer.setLength(0);
+		lastWrite = writer.submit(() -> {
+			System.out.print(batch);
+			System.out.flush();
+		});
+	}
+}
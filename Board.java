@@ -1,9 +1,17 @@
-
 /**
- * The Board class represents a board of the Nim game. The board can be of a variable size. In this implementation 
- * it only has 4 rows, 7 sticks in the first row, and 5,3 and 1 sticks in the following rows. A board object is 
- * disposable, meaning that the moves performed on the board are not reversible, and if a "clean" board is required, 
- * the user has to initialize a new board object.
+ * The Board class represents a board of the Nim game. The board can be of a variable size, given by its template.
+ * In this implementation it has 5 rows, 9 sticks in the first row, and 7, 5, 3 and 1 sticks in the following rows.
+ * The board is stored as a bitboard: every stick is a single bit of one int, where a set bit is an unmarked stick.
+ * The sticks of row r occupy consecutive bits, starting at the bit offset of the row, ordered from left to right.
+ * The segments of a row, its maximal sequences of consecutive unmarked sticks, are read from the bits of the row
+ * when they are asked for. Next to the bitboard, the board keeps the nim-sum of the position, the XOR of the Grundy
+ * values of all the segments, together with the number of segments of a single stick and of more than one stick,
+ * the number of legal moves, and a Zobrist hash of the position: the XOR of a random key of every unmarked stick.
+ * These are updated by every move, which can only shrink or split the single segment it is marked on, so the whole
+ * state of a board is a few ints, which are cheap to copy.
+ * The moves performed on the board are kept on an undo stack, so they can be taken back one at a time by
+ * unmarkLastSequence(), the last one first, and a search can play and take back its moves on a single board.
+ * snapshot() and restore() save and set a whole position as an int, for bulk copies.
  * @author OOP course staff
  */
 public class Board {
@@ -14,144 +22,658 @@ public class Board {
 	/** The maximal number of sticks in a single row in a Nim game board. */
 	private static final int MAX_NUM_OF_STICKS_IN_ROW = boardTemplate[0].length;
 	/** The total number of sticks in a Nim game board. */
-	private static final int NUM_OF_ELEMENTS = NUM_OF_ROWS*(1+MAX_NUM_OF_STICKS_IN_ROW)/2;	
-	
-	private int[][] gameBoard; //2d array representing the game board.
-	private int numberOfMarkedSticks; //Number of currently marked sticks on the board.
-	
-	
+	private static final int NUM_OF_ELEMENTS = NUM_OF_ROWS*(1+MAX_NUM_OF_STICKS_IN_ROW)/2;
+	/** The length of every row of the board, indexed from 0. */
+	private static final int[] ROW_LENGTHS = new int[NUM_OF_ROWS];
+	/** The index of the bit holding the first (leftmost) stick of every row, indexed from 0. */
+	private static final int[] ROW_OFFSETS = new int[NUM_OF_ROWS];
+	/** A mask of all the bits belonging to every row, indexed from 0. */
+	private static final int[] ROW_MASKS = new int[NUM_OF_ROWS];
+	/** The Grundy value of a single segment of every length, from 0 to the length of the longest row. */
+	private static final int[] GRUNDY_VALUES = new int[MAX_NUM_OF_STICKS_IN_ROW+1];
+	/** The bitboard of a clear board, in which every stick is unmarked. */
+	static final int FULL_BOARD;
+	/** The maximal number of legal moves on a board, reached on a clear board, as every move on a segment leaves
+	 * segments with fewer moves in total. A buffer of this size can hold the output of generateMoves(). */
+	public static final int MAX_NUM_OF_MOVES;
+	/** A hash of the geometry of the board, that is, of the number of rows and the length of every row. */
+	private static final long GEOMETRY_HASH;
+	/** The Zobrist keys of the sticks, XOR-ed for every value of every byte of the bitboard: the XOR of the keys of
+	 * the sticks of a bitboard is the XOR of ZOBRIST_BYTE_KEYS[i][b] over its bytes, b being the value of byte i. */
+	private static final long[][] ZOBRIST_BYTE_KEYS = new long[(NUM_OF_ELEMENTS+Byte.SIZE-1)/Byte.SIZE][1 << Byte.SIZE];
+	private static final int BYTE_MASK = (1 << Byte.SIZE) - 1;
+	/** The increment and the mixing constants of the SplitMix64 generator the Zobrist keys are drawn from. */
+	private static final long SPLITMIX_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final long SPLITMIX_MULTIPLIER_1 = 0xbf58476d1ce4e5b9L;
+	private static final long SPLITMIX_MULTIPLIER_2 = 0x94d049bb133111ebL;
+	/** The number of bits of every segment length in a canonical key, and a mask of them. */
+	private static final int CANONICAL_KEY_BITS = 4;
+	private static final long CANONICAL_KEY_MASK = (1L << CANONICAL_KEY_BITS) - 1;
+	/** The offset basis and prime of the 64 bit FNV-1a hash, used for the geometry hash. */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	static {
+		int offset = 0, fullBoard = 0, maxNumOfMoves = 0;
+		for(int i = 0; i < NUM_OF_ROWS; i++){
+			ROW_LENGTHS[i] = boardTemplate[i].length;
+			ROW_OFFSETS[i] = offset;
+			ROW_MASKS[i] = ((1 << ROW_LENGTHS[i]) - 1) << offset;
+			fullBoard |= ROW_MASKS[i];
+			offset += ROW_LENGTHS[i];
+			maxNumOfMoves += getNumberOfMoves(ROW_LENGTHS[i]);
+		}
+		FULL_BOARD = fullBoard;
+		MAX_NUM_OF_MOVES = maxNumOfMoves;
+		long geometryHash = (FNV_OFFSET_BASIS ^ NUM_OF_ROWS) * FNV_PRIME;
+		for(int i = 0; i < NUM_OF_ROWS; i++)
+			geometryHash = (geometryHash ^ ROW_LENGTHS[i]) * FNV_PRIME;
+		GEOMETRY_HASH = geometryHash;
+		// The Zobrist keys are drawn from a generator seeded by the geometry hash, so they are the same in every run
+		// and differ between boards of different geometries.
+		long state = GEOMETRY_HASH;
+		for(int i = 0; i < NUM_OF_ELEMENTS; i++){
+			state += SPLITMIX_GAMMA;
+			long key = (state ^ (state >>> 30)) * SPLITMIX_MULTIPLIER_1;
+			key = (key ^ (key >>> 27)) * SPLITMIX_MULTIPLIER_2;
+			key ^= key >>> 31;
+			//the key of stick i is added to every value of its byte which has the bit of the stick set
+			int bit = 1 << (i % Byte.SIZE);
+			for(int value = bit; value <= BYTE_MASK; value = (value+1) | bit)
+				ZOBRIST_BYTE_KEYS[i/Byte.SIZE][value] ^= key;
+		}
+		// A move on a segment marks a sequence of it, leaving the sticks on the left and on the right of the sequence
+		// as up to two new segments. The Grundy value of a segment is the smallest value which is not the Grundy
+		// value of a position it can be moved to.
+		for(int length = 1; length <= MAX_NUM_OF_STICKS_IN_ROW; length++){
+			long reachable = 0;
+			for(int left = 0; left < length; left++)
+				for(int right = 0; left+right < length; right++)
+					reachable |= 1L << (GRUNDY_VALUES[left]^GRUNDY_VALUES[right]);
+			GRUNDY_VALUES[length] = Long.numberOfTrailingZeros(~reachable);
+		}
+	}
+
+	private int unmarkedSticks; //bitboard representing the game board, a set bit is an unmarked stick.
+	private int nimSum; //XOR of the Grundy values of all the segments.
+	private int singletonSegments; //Number of segments of a single stick.
+	private int largeSegments; //Number of segments of more than one stick.
+	private int numOfMoves; //Number of legal moves, n*(n+1)/2 for every segment of n sticks.
+	private long zobristHash; //XOR of the Zobrist keys of all the unmarked sticks.
+	// The undo stack: the moves performed on the board, packed by Move.pack(), the last one on top. Every move marks
+	// at least one stick, so there are never more moves than sticks.
+	private final int[] moveHistory = new int[NUM_OF_ELEMENTS];
+	private int historySize;
+
+
 	/**
 	 * Initializes a clear board.
 	 */
-	public Board(){		
-		numberOfMarkedSticks = 0;
-		gameBoard = new int[NUM_OF_ROWS][];
-		// Remember: when we have only one line inside a for/while loop,
-		// we do not have to use curly brackets! See below:
-		for(int i = 0; i < NUM_OF_ROWS; i++)
-			gameBoard[i] = (int[]) boardTemplate[i].clone();		
+	public Board(){
+		this(FULL_BOARD);
+	}
+
+	/**
+	 * Initializes a board in the same state as the given board.
+	 * @param other the board to copy.
+	 */
+	public Board(Board other){
+		copyFrom(other);
+	}
+
+	/**
+	 * Initializes a board in the state described by the given bitboard, as returned by getBitboard().
+	 * @param bitboard the bitboard of the position, a set bit is an unmarked stick.
+	 */
+	Board(int bitboard){
+		restore(bitboard);
+	}
+
+	/**
+	 * Sets this board to the same state as the given board, including its undo stack, without allocating anything.
+	 * The position is a few ints, and the undo stack holds at most a move per stick.
+	 * @param other the board to copy.
+	 */
+	public void copyFrom(Board other){
+		unmarkedSticks = other.unmarkedSticks;
+		nimSum = other.nimSum;
+		singletonSegments = other.singletonSegments;
+		largeSegments = other.largeSegments;
+		numOfMoves = other.numOfMoves;
+		zobristHash = other.zobristHash;
+		System.arraycopy(other.moveHistory, 0, moveHistory, 0, other.historySize);
+		historySize = other.historySize;
 	}
-	
+
+	/**
+	 * Returns a snapshot of the current position, which restore() sets the board back to.
+	 * @return the snapshot, which is the bitboard of the position.
+	 */
+	public int snapshot(){
+		return unmarkedSticks;
+	}
+
 	/**
-	 * Returns a multi-line human-readable visual representation of the board 
+	 * Sets the board to the position of the given snapshot, as returned by snapshot() of this board or of any other
+	 * board, rebuilding the nim-sum, the segment counts, the number of legal moves and the hash of the position.
+	 * The undo stack is emptied, as the moves on it did not lead to the restored position.
+	 * @param snapshot the snapshot of the position.
+	 */
+	public void restore(int snapshot){
+		unmarkedSticks = snapshot & FULL_BOARD;
+		historySize = 0;
+		nimSum = 0;
+		singletonSegments = 0;
+		largeSegments = 0;
+		numOfMoves = 0;
+		for(int i = 0; i < NUM_OF_ROWS; i++){
+			int rowSticks = getRowSticks(i);
+			for(int starts = getSegmentStarts(rowSticks); starts != 0; starts &= starts-1)
+				addSegment(getRunLength(rowSticks, Integer.numberOfTrailingZeros(starts)));
+		}
+		zobristHash = getZobristKey(unmarkedSticks);
+	}
+
+	/**
+	 * Returns the sticks of the given row (counting from 0), the first stick of the row at bit 0.
+	 */
+	private int getRowSticks(int rowIndex){
+		return (unmarkedSticks & ROW_MASKS[rowIndex]) >>> ROW_OFFSETS[rowIndex];
+	}
+
+	/**
+	 * Returns a mask of the first sticks of the segments of the given sticks of a row: the unmarked sticks whose left
+	 * neighbour is marked, or which have no left neighbour.
+	 */
+	private static int getSegmentStarts(int rowSticks){
+		return rowSticks & ~(rowSticks << 1);
+	}
+
+	/**
+	 * Returns the length of the segment of the given sticks of a row starting at the given bit, which ends right
+	 * before the first marked stick after its start.
+	 */
+	private static int getRunLength(int rowSticks, int startBit){
+		return Integer.numberOfTrailingZeros(~(rowSticks >>> startBit));
+	}
+
+	/**
+	 * Returns the XOR of the Zobrist keys of all the sticks of the given bitboard.
+	 */
+	private static long getZobristKey(int sticks){
+		long key = 0;
+		for(int i = 0; i < ZOBRIST_BYTE_KEYS.length; i++)
+			key ^= ZOBRIST_BYTE_KEYS[i][(sticks >>> (Byte.SIZE*i)) & BYTE_MASK];
+		return key;
+	}
+
+	/**
+	 * Returns a multi-line human-readable visual representation of the board
 	 * as a String object. Can be used for printing the board to screen and for
 	 * debugging.
 	 */
 	public String toString(){
 		/*
-		 * When we implement a public method named 'toString()' (exactly this name!) which returns 
+		 * When we implement a public method named 'toString()' (exactly this name!) which returns
 		 * a String for some class, then when we send an object of this class to methods like
 		 * System.out.print() or println(), they will print this output String. If the object has
 		 * no such method, print() and println() will print using the template class_name@hashCodeIdentifier,
 		 * which in this case will look something like oop.ex1.Board@55f96302
 		 */
-		String output = "";
+		StringBuilder output = new StringBuilder((MAX_NUM_OF_STICKS_IN_ROW+1)*NUM_OF_ROWS);
 		int currentLength,i,j;
 		for(i = NUM_OF_ROWS-1 ; i>=0 ; i--){
-			
-			currentLength = gameBoard[i].length;
+
+			currentLength = ROW_LENGTHS[i];
 			for(j=0;j<(MAX_NUM_OF_STICKS_IN_ROW-currentLength)/2.0;j++)
-				output += " ";
-			
+				output.append(' ');
+
 			for(j=0;j<currentLength;j++)
-				output += gameBoard[i][j];
-			
+				output.append(((unmarkedSticks >>> (ROW_OFFSETS[i]+j)) & 1) == 1 ? '1' : '0');
+
 			for(j=0;j<(MAX_NUM_OF_STICKS_IN_ROW-currentLength)/2.0;j++)
-				output += " ";
-			
-			output += '\n';	
+				output.append(' ');
+
+			output.append('\n');
 		}
-		
-		return output;
+
+		return output.toString();
 	}
 
 	/**
 	 * Makes an attempt to mark the given stick sequence on the board.
 	 * In case the move is illegal the board is not changed and an appropriate error code is returned:
-	 * If the given coordinates exceed the boundaries of the board, -1 is returned. 
+	 * If the given coordinates exceed the boundaries of the board, -1 is returned.
 	 * If the current move overlaps with previously marked sticks, -2 is returned.
 	 * If the move is legal, the board changes accordingly, the number of marked sticks in the "numMarked" is updated, 0 is returned.
 	 * @param move the move to perform
 	 * @return 0 if the move was legal, -2 and -1 if the move is not legal (details above).
 	 */
 	public int markStickSequence(Move move){
-		
-		int rowNumber,leftBound,rightBound;
-		rowNumber = move.getRow();
-		leftBound = move.getLeftBound();
-		rightBound = move.getRightBound();
-		
+		return markStickSequence(move.getRow(), move.getLeftBound(), move.getRightBound());
+	}
+
+	/**
+	 * Makes an attempt to mark the given stick sequence on the board, exactly like markStickSequence(Move), given
+	 * the move in its packed form.
+	 * @param packedMove the move to perform, packed by Move.pack().
+	 * @return 0 if the move was legal, -2 and -1 if the move is not legal.
+	 */
+	public int markStickSequence(int packedMove){
+		return markStickSequence(Move.unpackRow(packedMove), Move.unpackLeftBound(packedMove),
+				Move.unpackRightBound(packedMove));
+	}
+
+	/**
+	 * Makes an attempt to mark the stick sequence given by its row and bounds, as described in
+	 * markStickSequence(Move).
+	 */
+	private int markStickSequence(int rowNumber, int leftBound, int rightBound){
+
 		// Checking for legal bounds of the move
-		if( (leftBound < 1) || (leftBound > rightBound) || rowNumber <1 || rowNumber>NUM_OF_ROWS || (rightBound>gameBoard[rowNumber-1].length) )
+		if( (leftBound < 1) || (leftBound > rightBound) || rowNumber <1 || rowNumber>NUM_OF_ROWS || (rightBound>ROW_LENGTHS[rowNumber-1]) )
 			return -1;
-		
-		// Checking for moves covering already-marked sticks
-		for(int j=leftBound-1;j<rightBound;j++){
-			if(gameBoard[rowNumber-1][j] == 1) {
-				gameBoard[rowNumber - 1][j] = 0;
-			}
-			else{ //Illegal move,revert back and return error.
-				for(int back=j-1;back>=leftBound-1;back--){
-					gameBoard[rowNumber-1][back] = 1;
-				}
-				return -2;
-			}
-		}
-		
-		numberOfMarkedSticks += (rightBound-leftBound+1);
-		
+
+		// Checking for moves covering already-marked sticks: the whole sequence is tested and cleared at once,
+		// so an illegal move never has to be reverted.
+		int sequence = ((1 << (rightBound-leftBound+1)) - 1) << (ROW_OFFSETS[rowNumber-1]+leftBound-1);
+		if((unmarkedSticks & sequence) != sequence)
+			return -2;
+
+		int rowIndex = rowNumber-1;
+		updateSegment(rowIndex, leftBound, rightBound, getRowSticks(rowIndex), -1);
+		unmarkedSticks &= ~sequence;
+		zobristHash ^= getZobristKey(sequence);
+		moveHistory[historySize++] = Move.pack(rowNumber, leftBound, rightBound);
+
 		return 0;
 	}
-	
-	
+
+	/**
+	 * Takes back the last move performed on the board which was not taken back yet, unmarking its sticks, so a
+	 * search can play its moves and take them back on a single board.
+	 * @return the move taken back, packed by Move.pack(), or Move.NO_MOVE if there is no move to take back.
+	 */
+	public int unmarkLastSequence(){
+		if(historySize == 0)
+			return Move.NO_MOVE;
+		int move = moveHistory[--historySize];
+		int rowIndex = Move.unpackRow(move)-1, leftBound = Move.unpackLeftBound(move);
+		int rightBound = Move.unpackRightBound(move);
+		int sequence = ((1 << (rightBound-leftBound+1)) - 1) << (ROW_OFFSETS[rowIndex]+leftBound-1);
+		unmarkedSticks |= sequence;
+		zobristHash ^= getZobristKey(sequence);
+		updateSegment(rowIndex, leftBound, rightBound, getRowSticks(rowIndex), 1);
+		return move;
+	}
+
+	/**
+	 * Updates the nim-sum and the segment counts for a sequence of the given row (counting from 0) being marked or
+	 * unmarked. The sequence lies within a single segment of the given sticks of the row, the sticks being taken
+	 * before the sequence is marked or after it is unmarked. Marking the sequence replaces the segment by the parts
+	 * of it on each side of the sequence, and unmarking it does the opposite.
+	 * @param direction -1 if the sequence is marked, 1 if it is unmarked.
+	 */
+	private void updateSegment(int rowIndex, int leftBound, int rightBound, int rowSticks, int direction){
+		int leftBit = leftBound-1, rightBit = rightBound-1;
+		//the segment starts right after the last marked stick before the sequence, and ends right before the first
+		//marked stick after it
+		int markedBefore = ~rowSticks & ((1 << leftBit) - 1);
+		int start = Integer.SIZE - Integer.numberOfLeadingZeros(markedBefore);
+		int end = Integer.numberOfTrailingZeros(~rowSticks & (-1 << (rightBit+1))) - 1;
+		int leftLength = leftBit-start, rightLength = end-rightBit;
+		if(direction < 0){
+			removeSegment(end-start+1);
+			addSegment(leftLength);
+			addSegment(rightLength);
+		} else {
+			removeSegment(leftLength);
+			removeSegment(rightLength);
+			addSegment(end-start+1);
+		}
+	}
+
+
+	/**
+	 * Adds a segment of the given length, which may be 0 for no segment, to the nim-sum and the segment counts.
+	 */
+	private void addSegment(int length){
+		nimSum ^= GRUNDY_VALUES[length];
+		numOfMoves += getNumberOfMoves(length);
+		if(length == 1)
+			singletonSegments++;
+		else if(length > 1)
+			largeSegments++;
+	}
+
+	/**
+	 * Removes a segment of the given length, which may be 0 for no segment, from the nim-sum and the segment counts.
+	 */
+	private void removeSegment(int length){
+		nimSum ^= GRUNDY_VALUES[length];
+		numOfMoves -= getNumberOfMoves(length);
+		if(length == 1)
+			singletonSegments--;
+		else if(length > 1)
+			largeSegments--;
+	}
+
+	/**
+	 * Returns the number of moves on a single segment of the given length: length-i moves start at its i'th stick
+	 * (counting from 0), one for every stick from there to its end.
+	 */
+	private static int getNumberOfMoves(int length){
+		return length*(length+1)/2;
+	}
+
 	/**
 	 * Returns the number of rows in the board
 	 */
 	public int getNumberOfRows(){
 		return NUM_OF_ROWS;
 	}
-	
+
 	/**
 	 * Returns the total number of sticks (marked and unmarked) in the row. A legal input to this method is
 	 * an integer number between 1 and the output of "getNumberOfRows()". Returns -1 in case the input is invalid.
 	 */
 	public int getRowLength(int row){
-		
+
 		if(row<1 || row>NUM_OF_ROWS)
 			return -1;
-		
-		return gameBoard[row-1].length;
+
+		return ROW_LENGTHS[row-1];
 	}
-	
+
 	/**
-	 * Given an index to the stick position (row and number in row - counting from the left side), 
-	 * this method returns true if the stick is unmarked, and false if it is marked, or if the input is out of bounds. 
+	 * Given an index to the stick position (row and number in row - counting from the left side),
+	 * this method returns true if the stick is unmarked, and false if it is marked, or if the input is out of bounds.
 	 */
 	public boolean isStickUnmarked(int row,int stickNum){
-		
-		if(row<1 || row>NUM_OF_ROWS || stickNum<1 || stickNum>gameBoard[row-1].length)
+
+		if(row<1 || row>NUM_OF_ROWS || stickNum<1 || stickNum>ROW_LENGTHS[row-1])
 			return false;
-		
-		return(gameBoard[row-1][stickNum-1]==1);
-		
+
+		return ((unmarkedSticks >>> (ROW_OFFSETS[row-1]+stickNum-1)) & 1) == 1;
+
 	}
-	
+
+	/**
+	 * Returns the number of unmarked sticks in the row. A legal input to this method is an integer number between
+	 * 1 and the output of "getNumberOfRows()". Returns -1 in case the input is invalid.
+	 */
+	public int getNumberOfUnmarkedSticksInRow(int row){
+
+		if(row<1 || row>NUM_OF_ROWS)
+			return -1;
+
+		return Integer.bitCount(unmarkedSticks & ROW_MASKS[row-1]);
+	}
+
+	/**
+	 * Returns the number of segments in the row, a segment being a maximal sequence of consecutive unmarked sticks.
+	 * A legal input to this method is an integer number between 1 and the output of "getNumberOfRows()". Returns -1
+	 * in case the input is invalid.
+	 */
+	public int getNumberOfSegments(int row){
+
+		if(row<1 || row>NUM_OF_ROWS)
+			return -1;
+
+		return Integer.bitCount(getSegmentStarts(getRowSticks(row-1)));
+	}
+
+	/**
+	 * Returns the bit of the first stick of the given segment of the row (counting from 0), or -1 if the row has no
+	 * such segment. Segments are numbered from 1, from left to right.
+	 */
+	private int getSegmentStartBit(int rowIndex, int segment){
+		int starts = getSegmentStarts(getRowSticks(rowIndex));
+		for(int i = 1; i < segment && starts != 0; i++)
+			starts &= starts-1;
+		return starts == 0 ? -1 : Integer.numberOfTrailingZeros(starts);
+	}
+
+	/**
+	 * Returns the number of the leftmost stick of the given segment of the row. Segments are numbered from 1 to the
+	 * output of "getNumberOfSegments(row)", from left to right. Returns -1 in case the input is invalid.
+	 */
+	public int getSegmentStart(int row, int segment){
+
+		if(row<1 || row>NUM_OF_ROWS || segment<1)
+			return -1;
+
+		int startBit = getSegmentStartBit(row-1, segment);
+		return startBit < 0 ? -1 : startBit+1;
+	}
+
+	/**
+	 * Returns the number of sticks in the given segment of the row. Segments are numbered from 1 to the output of
+	 * "getNumberOfSegments(row)", from left to right. Returns -1 in case the input is invalid.
+	 */
+	public int getSegmentLength(int row, int segment){
+
+		if(row<1 || row>NUM_OF_ROWS || segment<1)
+			return -1;
+
+		int startBit = getSegmentStartBit(row-1, segment);
+		return startBit < 0 ? -1 : getRunLength(getRowSticks(row-1), startBit);
+	}
+
+	/**
+	 * Returns the number of the segment of the row holding the given stick, or 0 if the stick is marked. Returns
+	 * -1 in case the input is invalid.
+	 */
+	public int findSegmentContaining(int row, int stickNum){
+
+		if(row<1 || row>NUM_OF_ROWS || stickNum<1 || stickNum>ROW_LENGTHS[row-1])
+			return -1;
+
+		int rowSticks = getRowSticks(row-1);
+		if(((rowSticks >>> (stickNum-1)) & 1) == 0)
+			return 0;
+		//the segment holding the stick is the last one starting at the stick or before it
+		return Integer.bitCount(getSegmentStarts(rowSticks) & ((2 << (stickNum-1)) - 1));
+	}
+
+	/**
+	 * Returns the number of the leftmost stick of the leftmost segment of the row with at least the given number of
+	 * sticks, or 0 if the row has no such segment. Returns -1 in case the row is invalid.
+	 */
+	public int findSegment(int row, int minLength){
+
+		if(row<1 || row>NUM_OF_ROWS)
+			return -1;
+
+		int rowSticks = getRowSticks(row-1);
+		for(int starts = getSegmentStarts(rowSticks); starts != 0; starts &= starts-1){
+			int startBit = Integer.numberOfTrailingZeros(starts);
+			if(getRunLength(rowSticks, startBit) >= minLength)
+				return startBit+1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the move marking the whole of the first segment on the board with at least the given number of
+	 * sticks, searching the rows in order and every row from left to right, or Move.NO_MOVE if there is no such
+	 * segment.
+	 * @return the move, packed by Move.pack().
+	 */
+	public int findSegmentMove(int minLength){
+		for(int i = 0; i < NUM_OF_ROWS; i++){
+			int rowSticks = getRowSticks(i);
+			for(int starts = getSegmentStarts(rowSticks); starts != 0; starts &= starts-1){
+				int startBit = Integer.numberOfTrailingZeros(starts), length = getRunLength(rowSticks, startBit);
+				if(length >= minLength)
+					return Move.pack(i+1, startBit+1, startBit+length);
+			}
+		}
+		return Move.NO_MOVE;
+	}
+
+	/**
+	 * Returns the move marking the whole of the first segment on the board of exactly the given number of sticks,
+	 * searching the rows in order and every row from left to right, or Move.NO_MOVE if there is no such segment.
+	 * @return the move, packed by Move.pack().
+	 */
+	public int findSegmentMoveOfLength(int length){
+		for(int i = 0; i < NUM_OF_ROWS; i++){
+			int rowSticks = getRowSticks(i);
+			for(int starts = getSegmentStarts(rowSticks); starts != 0; starts &= starts-1){
+				int startBit = Integer.numberOfTrailingZeros(starts);
+				if(getRunLength(rowSticks, startBit) == length)
+					return Move.pack(i+1, startBit+1, startBit+length);
+			}
+		}
+		return Move.NO_MOVE;
+	}
+
+	/**
+	 * Returns the canonical key of the position: the lengths of all the segments, from the longest to the shortest,
+	 * 4 bits each. The outcome of a position and its best moves only depend on the lengths of its segments, and not
+	 * on the rows they are in or on where they start, so positions with the same key are strategically the same.
+	 * The key is 0 exactly when no stick is left.
+	 * @return the key, which fits in a long as no row has 16 sticks or more, and no board has more than 16 segments.
+	 */
+	public long getCanonicalKey(){
+		//a histogram of the lengths, 4 bits for every length, as no length occurs 16 times
+		long histogram = 0;
+		for(int i = 0; i < NUM_OF_ROWS; i++){
+			int rowSticks = getRowSticks(i);
+			for(int starts = getSegmentStarts(rowSticks); starts != 0; starts &= starts-1)
+				histogram += 1L << (CANONICAL_KEY_BITS*getRunLength(rowSticks, Integer.numberOfTrailingZeros(starts)));
+		}
+		long key = 0;
+		for(int length = MAX_NUM_OF_STICKS_IN_ROW; length >= 1; length--){
+			for(long count = (histogram >>> (CANONICAL_KEY_BITS*length)) & CANONICAL_KEY_MASK; count > 0; count--)
+				key = (key << CANONICAL_KEY_BITS) | length;
+		}
+		return key;
+	}
+
+	/**
+	 * @return the number of legal moves on the board, which is also the number of moves generateMoves() produces.
+	 */
+	public int countLegalMoves(){
+		return numOfMoves;
+	}
+
+	/**
+	 * Writes all the legal moves on the board to the given buffer, in the order of their rows, then of their left
+	 * bounds and then of their right bounds. Nothing is allocated, so search and sampling strategies can reuse a
+	 * single buffer.
+	 * @param buffer the array to write the moves to, packed by Move.pack(), starting at index 0. An array of
+	 * MAX_NUM_OF_MOVES moves is always large enough.
+	 * @return the number of moves written, which is the output of "countLegalMoves()".
+	 */
+	public int generateMoves(int[] buffer){
+		int count = 0;
+		for(int i = 0; i < NUM_OF_ROWS; i++){
+			int rowSticks = getRowSticks(i);
+			for(int starts = getSegmentStarts(rowSticks); starts != 0; starts &= starts-1){
+				int start = Integer.numberOfTrailingZeros(starts)+1;
+				int end = start+getRunLength(rowSticks, start-1)-1;
+				for(int left = start; left <= end; left++)
+					for(int right = left; right <= end; right++)
+						buffer[count++] = Move.pack(i+1, left, right);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the nim-sum of the board, the XOR of the Grundy values of all of its segments. Under the normal play
+	 * rule the player to move wins exactly when the nim-sum is not 0.
+	 */
+	public int getNimSum(){
+		return nimSum;
+	}
+
+	/**
+	 * @return the number of segments of a single stick on the board.
+	 */
+	public int getNumberOfSingletonSegments(){
+		return singletonSegments;
+	}
+
+	/**
+	 * @return the number of segments of more than one stick on the board.
+	 */
+	public int getNumberOfLargeSegments(){
+		return largeSegments;
+	}
+
+	/**
+	 * Returns the Grundy value of a single segment of the given number of sticks, which is between 0 and the length
+	 * of the longest row. Returns -1 in case the input is invalid.
+	 */
+	public static int getGrundyValue(int segmentLength){
+
+		if(segmentLength<0 || segmentLength>MAX_NUM_OF_STICKS_IN_ROW)
+			return -1;
+
+		return GRUNDY_VALUES[segmentLength];
+	}
+
 	/**
 	 * @return The number of marked sticks on the board.
 	 */
 	public int getNumberOfMarkedSticks() {
-		// This is a classic "getter" method. We use getter methods when we want other classes to be 
+		// This is a classic "getter" method. We use getter methods when we want other classes to be
 		// able to read the value of some private field in some class, without being able to change it.
 		// If we simply made the field (in this case 'numMarked') public, other classes could read AND
 		// change it, so this is a better solution.
-		return numberOfMarkedSticks;
+		return NUM_OF_ELEMENTS - Integer.bitCount(unmarkedSticks);
 	}
-	
+
 	/**
 	 * @return the number of unmarked sticks on the board.
 	 */
 	public int getNumberOfUnmarkedSticks(){
-		return NUM_OF_ELEMENTS - numberOfMarkedSticks;
+		return Integer.bitCount(unmarkedSticks);
+	}
+
+	/**
+	 * @return the bitboard of the current position, a set bit is an unmarked stick. Two boards are in the same
+	 * position exactly when their bitboards are equal, so the bitboard can be used to hash and store positions.
+	 */
+	public int getBitboard(){
+		return unmarkedSticks;
+	}
+
+	/**
+	 * Returns the Zobrist hash of the current position, the XOR of the random keys of all of its unmarked sticks. The
+	 * hash is kept up to date by every move and every move taken back, so reading it costs nothing. Two boards in the
+	 * same position have the same hash, and a board with no unmarked stick has the hash 0.
+	 */
+	public long getZobristHash(){
+		return zobristHash;
+	}
+
+	/**
+	 * Returns a hash of the geometry of the board. Boards with the same number of rows and the same row lengths have
+	 * the same geometry hash, so it can be used to check that data stored for one board fits another.
+	 */
+	static long getGeometryHash(){
+		return GEOMETRY_HASH;
+	}
+
+	/**
+	 * Returns the index of the bit holding the given stick in the bitboard. The input is assumed to be legal.
+	 * @param row the row of the stick, between 1 and the output of "getNumberOfRows()".
+	 * @param stickNum the number of the stick in the row, counting from 1 on the left side.
+	 */
+	static int getStickBit(int row, int stickNum){
+		return ROW_OFFSETS[row-1]+stickNum-1;
+	}
+
+	/**
+	 * Returns a mask of all the bits of the given row in the bitboard. The input is assumed to be legal.
+	 * @param row the row, between 1 and the output of "getNumberOfRows()".
+	 */
+	static int getRowMask(int row){
+		return ROW_MASKS[row-1];
 	}
 
 }
@@ -0,0 +1,237 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CachingStrategy class wraps a strategy with a bounded cache of its moves, so a position which was already
+ * played is answered without asking the strategy again. The cache is keyed by the canonical key of the position,
+ * given by Board.getCanonicalKey(), so a move found on one position is reused on every position with the same
+ * segment lengths, wherever the segments are. A move is kept relative to the segment it is on, by the length of the
+ * segment and the bounds of the move within it, and is translated back to the first segment of that length on the
+ * board it is reused on.
+ * <p>
+ * Only strategies whose moves depend on nothing but the lengths of the segments should be wrapped, such as the
+ * Smart and the Heuristic strategies, as the move of one position is played on all the positions like it. The moves
+ * are kept in a few fixed arrays, so looking a move up or adding one allocates nothing: the entries of the cache are
+ * numbered from 0, and found through an open-addressing table of their numbers, probed linearly from the hash of the
+ * key. When the cache is full, an entry is evicted by the clock algorithm, which approximates evicting the least
+ * recently used one: a hand goes round the entries, clearing the mark every hit sets on an entry, and evicts the
+ * first entry it finds unmarked. Like every strategy, a CachingStrategy belongs to a single player and is not
+ * thread-safe.
+ * <p>
+ * Caching is off unless the system property nim.cache.capacity is set, since the wrapped strategies are fast enough
+ * that a lookup saves little; the PlayerBenchmark measures the strategies with and without a cache.
+ */
+public class CachingStrategy implements Strategy {
+
+	/** The system property holding the number of moves a cache keeps, read by fromSystemProperties. */
+	private static final String CAPACITY_PROPERTY = "nim.cache.capacity";
+	/** The table of the entry numbers has at least this many slots per entry, so the probes stay short. */
+	private static final int SLOTS_PER_ENTRY = 2;
+	/** Multiplying a key by this odd constant spreads its bits into the high bits, which pick its slot. */
+	private static final long HASH_MULTIPLIER = 0x9e3779b97f4a7c15L;
+	private static final int LONG_BITS = 64;
+	private static final int PERCENT = 100;
+
+	/** The totals of all the caches, used to report their hit rate. */
+	private static final LongAdder totalHits = new LongAdder();
+	private static final LongAdder totalMisses = new LongAdder();
+	private static final LongAdder totalEvictions = new LongAdder();
+
+	private final Strategy strategy;
+	private final int capacity;
+	//the entries: the canonical key of a position and its move, packed by Move.pack() with the length of its segment
+	//in place of the row and its bounds counted from the start of the segment, and whether it was hit since the hand
+	//of the clock last passed it.
+	private final long[] entryKeys;
+	private final int[] entryMoves;
+	private final boolean[] referenced;
+	//the table of the entries, holding the number of an entry plus 1 in a slot, and 0 in an empty slot.
+	private final int[] slots;
+	private final int slotMask;
+	private final int hashShift;
+	private int size;
+	private int hand;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Initializes a cache of the moves of the given strategy.
+	 * @param strategy the strategy producing the moves which are not in the cache.
+	 * @param capacity the number of moves the cache keeps.
+	 */
+	public CachingStrategy(Strategy strategy, int capacity){
+		if (capacity < 1 || capacity > Integer.highestOneBit(Integer.MAX_VALUE) / SLOTS_PER_ENTRY){
+			throw new IllegalArgumentException("Invalid cache capacity");
+		}
+		this.strategy = strategy;
+		this.capacity = capacity;
+		entryKeys = new long[capacity];
+		entryMoves = new int[capacity];
+		referenced = new boolean[capacity];
+		int numOfSlots = Integer.highestOneBit(capacity * SLOTS_PER_ENTRY - 1) << 1;
+		slots = new int[numOfSlots];
+		slotMask = numOfSlots - 1;
+		hashShift = LONG_BITS - Integer.numberOfTrailingZeros(numOfSlots);
+	}
+
+	/**
+	 * Returns the given strategy with a cache of its moves, keeping the number of moves given by the system property
+	 * nim.cache.capacity, or the strategy itself if the property is not set to a positive number.
+	 */
+	public static Strategy fromSystemProperties(Strategy strategy){
+		int capacity = Integer.getInteger(CAPACITY_PROPERTY, 0);
+		return capacity > 0 ? new CachingStrategy(strategy, capacity) : strategy;
+	}
+
+	/**
+	 * Produces the move of the wrapped strategy, from the cache if a position with the same segment lengths was
+	 * already played.
+	 */
+	@Override
+	public int produceMove(Board board, long deadline){
+		long key = board.getCanonicalKey();
+		int entry = slots[findSlot(key)] - 1;
+		if (entry >= 0){
+			hits++;
+			totalHits.increment();
+			referenced[entry] = true;
+			int cached = entryMoves[entry];
+			int segment = board.findSegmentMoveOfLength(Move.unpackRow(cached));
+			int start = Move.unpackLeftBound(segment);
+			return Move.pack(Move.unpackRow(segment), start+Move.unpackLeftBound(cached)-1,
+					start+Move.unpackRightBound(cached)-1);
+		}
+		misses++;
+		totalMisses.increment();
+		int move = strategy.produceMove(board, deadline);
+		int row = Move.unpackRow(move), left = Move.unpackLeftBound(move), right = Move.unpackRightBound(move);
+		int segment = board.findSegmentContaining(row, left);
+		//a move which is not within a single segment is illegal, and is returned without being kept
+		if (segment > 0){
+			int start = board.getSegmentStart(row, segment), length = board.getSegmentLength(row, segment);
+			if (right < start+length){
+				put(key, Move.pack(length, left-start+1, right-start+1));
+			}
+		}
+		return move;
+	}
+
+	/**
+	 * Returns the slot of the entry of the given key, or the empty slot where an entry of the key would be added.
+	 */
+	private int findSlot(long key){
+		int slot = getHomeSlot(key);
+		while (slots[slot] != 0 && entryKeys[slots[slot]-1] != key){
+			slot = (slot+1) & slotMask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the slot the probes for the given key start at.
+	 */
+	private int getHomeSlot(long key){
+		return (int) ((key * HASH_MULTIPLIER) >>> hashShift);
+	}
+
+	/**
+	 * Adds the given move of a position which is not in the cache, evicting an entry if the cache is full.
+	 */
+	private void put(long key, int move){
+		int entry;
+		if (size < capacity){
+			entry = size++;
+		} else {
+			//the hand clears the marks it passes, so it stops within a round of the entries
+			while (referenced[hand]){
+				referenced[hand] = false;
+				hand = (hand+1) % capacity;
+			}
+			entry = hand;
+			hand = (hand+1) % capacity;
+			removeSlot(findSlot(entryKeys[entry]));
+			evictions++;
+			totalEvictions.increment();
+		}
+		entryKeys[entry] = key;
+		entryMoves[entry] = move;
+		referenced[entry] = false;
+		//the slot is only found now, as removing the evicted entry may have moved the entries around it
+		slots[findSlot(key)] = entry+1;
+	}
+
+	/**
+	 * Empties the given slot, moving back the entries after it which could not be found once it is empty: an entry
+	 * is moved into the emptied slot if the slot is between its home slot and the slot it is in.
+	 */
+	private void removeSlot(int slot){
+		int free = slot;
+		for (int next = (slot+1) & slotMask; slots[next] != 0; next = (next+1) & slotMask){
+			int home = getHomeSlot(entryKeys[slots[next]-1]);
+			if (((next-home) & slotMask) >= ((next-free) & slotMask)){
+				slots[free] = slots[next];
+				free = next;
+			}
+		}
+		slots[free] = 0;
+	}
+
+	@Override
+	public void setSeed(long seed){
+		strategy.setSeed(seed);
+	}
+
+	@Override
+	public void prepare(){
+		strategy.prepare();
+	}
+
+	@Override
+	public void setSamplingMode(int mode){
+		strategy.setSamplingMode(mode);
+	}
+
+	@Override
+	public int getSamplingMode(){
+		return strategy.getSamplingMode();
+	}
+
+	@Override
+	public void setOutput(MessageOutput output){
+		strategy.setOutput(output);
+	}
+
+	/**
+	 * @return the number of moves found in the cache.
+	 */
+	public long getNumberOfHits(){
+		return hits;
+	}
+
+	/**
+	 * @return the number of moves which were not in the cache, and were produced by the wrapped strategy.
+	 */
+	public long getNumberOfMisses(){
+		return misses;
+	}
+
+	/**
+	 * @return the number of moves evicted from the cache to make room for new ones.
+	 */
+	public long getNumberOfEvictions(){
+		return evictions;
+	}
+
+	/**
+	 * @return a report of the hits, the misses and the evictions of all the caches, or null if no move was asked of
+	 * any cache.
+	 */
+	public static String getReport(){
+		long hits = totalHits.sum(), lookups = hits + totalMisses.sum();
+		if (lookups == 0){
+			return null;
+		}
+		return "Move cache: "+lookups+" moves, "+hits+" hits ("+hits * PERCENT / lookups+"%), "+totalMisses.sum()+
+				" misses, "+totalEvictions.sum()+" evictions";
+	}
+}
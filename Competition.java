@@ -1,4 +1,20 @@
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The Competition class represents a Nim competition between two players, consisting of a given number of rounds. 
@@ -12,6 +28,17 @@ public class Competition {
 	private boolean verboseMode;
 	private int wins1;
 	private int wins2;
+	private MessageOutput output = AsyncConsoleOutput.getInstance();
+	private GameRecordWriter recorder; //null if the rounds are not recorded.
+	private long recordSeed; //the seed of round i is this seed plus i.
+	private GameStatistics statistics; //null if no statistics are collected.
+	private TimeControl timeControl; //null if the moves are not timed.
+	private boolean forfeitOnTimeout; //whether a player running out of time loses the round, or plays a fallback move.
+	private final LongAdder timeouts1 = new LongAdder();
+	private final LongAdder timeouts2 = new LongAdder();
+	//the moves the players ran out of time on and are still producing, by player. a player with a late move is not
+	//asked for another one until the late move is done.
+	private final Map<Player, Future<Integer>> lateMoves = new ConcurrentHashMap<>();
 
 	/** class constants **/
 	private static final String INVALID_MOVE_MSG = "Invalid move. Enter another:";
@@ -20,6 +47,43 @@ public class Competition {
 	private static final int ID_2 = 2;
 	private static final String PLAYER2_VICTORY = "Player " +ID_2+ " won!";
 	private static final String PLAYER1_VICTORY = "Player " +ID_1+ " won!";
+	private static final String PLAYER_MSG_PREFIX = "Player ";
+	private static final String TURN_MSG_SUFFIX = ", it is now your turn!";
+	private static final String MOVE_MSG_INFIX = " made the move: ";
+	private static final String OUT_OF_TIME_MSG_SUFFIX = " ran out of time!";
+	private static final int THREADS_ARG_INDEX = 3;
+	private static final int BATCHES_PER_THREAD = 4;
+	private static final int RECORD_ARG_INDEX = 4;
+	/** The maximal number of moves in a round, reached when every move marks a single stick. */
+	private static final int MAX_MOVES_IN_ROUND = new Board().getNumberOfUnmarkedSticks();
+	/** Mixed into the seed of a round before it is given to the second player, so the players do not play alike. */
+	private static final long SECOND_PLAYER_SEED_MIX = 0x9e3779b97f4a7c15L;
+	/** The system property which makes main collect and print statistics of the rounds, when set to true. */
+	private static final String STATISTICS_PROPERTY = "nim.statistics";
+	/** The system properties setting the time control of main and what happens when a player runs out of time. */
+	private static final String TIME_CONTROL_PROPERTY = "nim.timeControl";
+	private static final String TIMEOUT_POLICY_PROPERTY = "nim.timeoutPolicy";
+	private static final String FORFEIT_POLICY = "forfeit";
+	private static final String TIME_CONTROL_USAGE_MSG = "Usage: -Dnim.timeControl=<milliseconds per move>, or " +
+			"-Dnim.timeControl=<total milliseconds>+<increment milliseconds> for a game clock";
+	/** The system property holding the path of a script of the inputs of the human player, read instead of the
+	 * console. */
+	private static final String HUMAN_SCRIPT_PROPERTY = "nim.humanScript";
+	/** Returned by singleTurnManager in place of a move when the player ran out of time and forfeits the round. */
+	private static final int FORFEITED_MOVE = -1;
+	private static final String MOVE_THREAD_NAME = "timed-move";
+	/** The player is told to be done a safety margin before the time of its move is up, as it takes a search some
+	 * time to notice its deadline and return, and the thread waiting for the move some time to wake up. The margin
+	 * is a quarter of the time of the move, and at most MAX_SAFETY_MARGIN_NANOS. */
+	private static final int SAFETY_MARGIN_DIVISOR = 4;
+	private static final long MAX_SAFETY_MARGIN_NANOS = 50000000L;
+
+	/** The threads timed moves are produced on, shared by all the competitions. */
+	private static final ExecutorService moveExecutor = Executors.newCachedThreadPool(task -> {
+		Thread thread = new Thread(task, MOVE_THREAD_NAME);
+		thread.setDaemon(true);
+		return thread;
+	});
 
     /**
      * Receives two Player objects, representing the two competing opponents, and a flag determining whether messages
@@ -38,6 +102,78 @@ public class Competition {
 		wins2 = 0;
     }
 
+	/**
+	 * Sets the destination of the messages of the competition, which is the console by default. The prompts of
+	 * human players are set apart, by Player.setOutput().
+	 * @param output the destination of the messages.
+	 */
+	public void setOutput(MessageOutput output){
+		this.output = output;
+	}
+
+	/**
+	 * Makes the competition record every round it plays to the given writer. The random generators of the players
+	 * are set to a seed derived from the given seed and the number of the round before every round, and the seed is
+	 * written to the record, so the random choices of the players can be reproduced.
+	 * @param writer the writer to record the rounds to, or null to stop recording.
+	 * @param seed the seed of the first round.
+	 */
+	public void setRecorder(GameRecordWriter writer, long seed){
+		recorder = writer;
+		recordSeed = seed;
+	}
+
+	/**
+	 * Makes the competition collect statistics of the rounds it plays into the given object: the time the players
+	 * take to produce their moves, the moves the board rejects and the number of moves in every round. When the
+	 * rounds are played in parallel, every thread collects its own statistics, and they are merged into the given
+	 * object once the thread is done, so the object is complete when playMultipleRounds returns.
+	 * @param statistics the object to collect the statistics into, or null to stop collecting them.
+	 */
+	public void setStatistics(GameStatistics statistics){
+		this.statistics = statistics;
+	}
+
+	/**
+	 * @return the object the statistics of the rounds are collected into, or null if they are not collected.
+	 */
+	public GameStatistics getStatistics(){
+		return statistics;
+	}
+
+	/**
+	 * Limits the time of the moves of the computer players. Every move is produced on a thread of its own, on a copy
+	 * of the board, and the player is given a deadline a safety margin before the time of the move is up. A player
+	 * which has not produced its move when the time is up either forfeits the round or has a fallback move played
+	 * for it, marking the first unmarked stick on the board. Human players are never hurried. The players are got
+	 * ready here, so the work of their first move is not done against its time.
+	 * @param control the time control, or null to stop limiting the time of the moves.
+	 * @param forfeit true if a player running out of time loses the round, false if a fallback move is played.
+	 */
+	public void setTimeControl(TimeControl control, boolean forfeit){
+		timeControl = control;
+		forfeitOnTimeout = forfeit;
+		if (control != null){
+			player1.prepare();
+			player2.prepare();
+		}
+	}
+
+	/**
+	 * Returns the number of moves in which a player ran out of time.
+	 * @param playerPosition playerPosition should be 1 or 2, corresponding to the first or the second player in
+	 * the competition.
+	 * @return the number of moves, or -1 if the player position is invalid.
+	 */
+	public long getNumberOfTimeouts(int playerPosition){
+		if (playerPosition == ID_1){
+			return timeouts1.sum();
+		} else if (playerPosition == ID_2){
+			return timeouts2.sum();
+		}
+		return -1;
+	}
+
     /**
      *If playerPosition = 1, the results of the first player is returned. If playerPosition = 2, the result of
      * the second player is returned. If playerPosition equals neiter, -1 is returned.
@@ -60,23 +196,260 @@ public class Competition {
 	 * returning nothing.
 	 * @param player the player whose turn it is
 	 * @param board current board
+	 * @param turnStatistics the statistics to record the turn in, or null if no statistics are collected
+	 * @param clocks the time left to each player, indexed by id, or null if the moves are not timed
+	 * @return the move played, packed by Move.pack(), or FORFEITED_MOVE if the player ran out of time and forfeits
+	 * the round
 	 */
-    private void singleTurnManager(Player player, Board board){
+    private int singleTurnManager(Player player, Board board, GameStatistics turnStatistics, long[] clocks){
     	// displays the turn's first message
-		messageDisplayManager("Player "+player.getPlayerId()+", it is now your turn!");
-		//initializing a move, using 'produceMove' method
-		Move player_move = player.produceMove(board);
+		messageDisplayManager(PLAYER_MSG_PREFIX, player.getPlayerId(), TURN_MSG_SUFFIX);
+		//initializing a move, using 'produceMovePacked' method so no Move object is allocated
+		int player_move = produceTimedMove(player, board, turnStatistics, clocks);
+		if (player_move == FORFEITED_MOVE){
+			return FORFEITED_MOVE;
+		}
 		//checks if the move is valid-
 		int result = board.markStickSequence(player_move);
 		// a while loop- if move is not valid, it shows an error message and continues to ask for new moves, until one
 		// is received.
 		while (result != 0) {
+			if (turnStatistics != null){
+				turnStatistics.recordRejection(player.getPlayerType(), result);
+			}
 			messageDisplayManager(INVALID_MOVE_MSG);
-			player_move = player.produceMove(board);
+			player_move = produceTimedMove(player, board, turnStatistics, clocks);
+			if (player_move == FORFEITED_MOVE){
+				return FORFEITED_MOVE;
+			}
 			result = board.markStickSequence(player_move);
 		}
 		//will print end-of-turn message, informing the move preformed
-		messageDisplayManager("Player "+player.getPlayerId()+" made the move: "+player_move.toString());
+		messageDisplayManager(PLAYER_MSG_PREFIX, player.getPlayerId(), MOVE_MSG_INFIX, player_move);
+		return player_move;
+	}
+
+	/**
+	 * produces a move of the given player, recording the time it took in the given statistics, if any. the clock is
+	 * only read when statistics are collected or the moves are timed.
+	 * @param player the player whose turn it is
+	 * @param board current board
+	 * @param turnStatistics the statistics to record the time in, or null if no statistics are collected
+	 * @param clocks the time left to each player, indexed by id, or null if the moves are not timed
+	 * @return the move of the player, packed by Move.pack(), or FORFEITED_MOVE
+	 */
+	private int produceTimedMove(Player player, Board board, GameStatistics turnStatistics, long[] clocks){
+		if (clocks != null && player.getPlayerType() != Player.HUMAN){
+			return produceMoveWithDeadline(player, board, turnStatistics, clocks);
+		}
+		if (turnStatistics == null){
+			return player.produceMovePacked(board);
+		}
+		long start = System.nanoTime();
+		int move = player.produceMovePacked(board);
+		turnStatistics.recordMove(player.getPlayerType(), System.nanoTime() - start);
+		return move;
+	}
+
+	/**
+	 * produces a move of the given computer player on a thread of its own, giving it the time left by the time
+	 * control, less a safety margin. the move is waited for until the time is up; if it is not done by then, the
+	 * thread of the player is interrupted and its move is replaced by the fallback move or a forfeit right away. the
+	 * late move is left to finish on its own and is thrown away. as the player must not be asked for another move
+	 * while it is still busy with this one, its next move first waits for the late one, out of its own time. the
+	 * player is never charged more than the time of the move.
+	 * @param player the player whose turn it is
+	 * @param board current board, of which the player is given a copy
+	 * @param turnStatistics the statistics to record the time in, or null if no statistics are collected
+	 * @param clocks the time left to each player, indexed by id
+	 * @return the move of the player, packed by Move.pack(), or FORFEITED_MOVE
+	 */
+	private int produceMoveWithDeadline(Player player, Board board, GameStatistics turnStatistics, long[] clocks){
+		int id = player.getPlayerId();
+		long budget = timeControl.getMoveBudgetNanos(clocks[id]);
+		long start = System.nanoTime();
+		long deadline = start + budget - Math.min(budget / SAFETY_MARGIN_DIVISOR, MAX_SAFETY_MARGIN_NANOS);
+		int move;
+		try {
+			Future<Integer> late = lateMoves.remove(player);
+			if (late != null && !awaitLateMove(late, budget)){
+				lateMoves.put(player, late);
+				move = produceTimeoutMove(player, board, turnStatistics, System.nanoTime() - start - budget);
+			} else {
+				move = produceMoveBefore(player, board, turnStatistics, start, budget, deadline);
+			}
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a move", e);
+		}
+		long elapsed = Math.min(System.nanoTime() - start, budget);
+		if (turnStatistics != null){
+			turnStatistics.recordMove(player.getPlayerType(), elapsed);
+		}
+		clocks[id] = timeControl.update(clocks[id], elapsed);
+		return move;
+	}
+
+	/**
+	 * waits for a move the player was late on to be done, for at most the given time.
+	 * @param late the late move
+	 * @param budget the longest time to wait, in nanoseconds
+	 * @return true if the late move is done, false if the time is up first
+	 */
+	private static boolean awaitLateMove(Future<Integer> late, long budget) throws InterruptedException{
+		try {
+			late.get(budget, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e){
+			return false;
+		} catch (ExecutionException e){
+			//the move is thrown away anyway, and an interrupted player may well fail.
+		}
+		return true;
+	}
+
+	/**
+	 * produces the move of the given player on a thread of its own, and waits for it until the time of the move is
+	 * up. a move which is not done by then is interrupted and kept as the late move of the player, and the fallback
+	 * move or a forfeit is returned instead.
+	 * @param player the player whose turn it is
+	 * @param board current board, of which the player is given a copy
+	 * @param turnStatistics the statistics to record a timeout in, or null if no statistics are collected
+	 * @param start the value of System.nanoTime() at which the time of the move started
+	 * @param budget the time of the move, in nanoseconds
+	 * @param deadline the deadline the player is given
+	 * @return the move of the player, packed by Move.pack(), or FORFEITED_MOVE
+	 */
+	private int produceMoveBefore(Player player, Board board, GameStatistics turnStatistics, long start, long budget,
+								  long deadline) throws InterruptedException{
+		Board copy = new Board(board);
+		//the thread producing the move, null once the move is done, so a late interrupt cannot hit another task
+		AtomicReference<Thread> mover = new AtomicReference<>();
+		Future<Integer> pending = moveExecutor.submit(() -> {
+			mover.set(Thread.currentThread());
+			try {
+				return player.produceMovePacked(copy, deadline);
+			} finally {
+				synchronized (mover){
+					mover.set(null);
+					Thread.interrupted();
+				}
+			}
+		});
+		try {
+			return pending.get(start + budget - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e){
+			synchronized (mover){
+				Thread thread = mover.get();
+				if (thread != null){
+					thread.interrupt();
+				}
+			}
+			lateMoves.put(player, pending);
+			return produceTimeoutMove(player, board, turnStatistics, System.nanoTime() - start - budget);
+		} catch (ExecutionException e){
+			throw new IllegalStateException("A move could not be produced", e.getCause());
+		}
+	}
+
+	/**
+	 * records that the given player ran out of time, and returns the move played for it instead of its own.
+	 * @param player the player which ran out of time
+	 * @param board current board
+	 * @param turnStatistics the statistics to record the timeout in, or null if no statistics are collected
+	 * @param overrun the time by which the player was late, in nanoseconds
+	 * @return the fallback move, packed by Move.pack(), or FORFEITED_MOVE
+	 */
+	private int produceTimeoutMove(Player player, Board board, GameStatistics turnStatistics, long overrun){
+		if (turnStatistics != null){
+			turnStatistics.recordTimeout(player.getPlayerType(), overrun);
+		}
+		(player.getPlayerId() == ID_1 ? timeouts1 : timeouts2).increment();
+		return forfeitOnTimeout ? FORFEITED_MOVE : produceFallbackMove(board);
+	}
+
+	/**
+	 * @return the move played for a player which ran out of time: marking the first unmarked stick on the board.
+	 */
+	private static int produceFallbackMove(Board board){
+		int firstSegment = board.findSegmentMove(1);
+		return Move.pack(Move.unpackRow(firstSegment), Move.unpackLeftBound(firstSegment),
+				Move.unpackLeftBound(firstSegment));
+	}
+
+	/**
+	 * an aid method for the playMultipleRounds- it manages a single round between the two given players on a new
+	 * board, the first player making the first move.
+	 * @param first the player making the first move, whose id is 1
+	 * @param second the player making the second move, whose id is 2
+	 * @param round the number of the round, counting from 0
+	 * @param moveLog an array of at least MAX_MOVES_IN_ROUND moves, to collect the moves of the round in when the
+	 * rounds are recorded
+	 * @param roundStatistics the statistics to record the round in, or null if no statistics are collected
+	 * @return the id of the winner of the round
+	 */
+	private int playSingleRound(Player first, Player second, int round, int[] moveLog,
+								GameStatistics roundStatistics){
+		//create a Board
+		Board board = new Board();
+		long seed = recordSeed + round;
+		if (recorder != null){
+			first.setSeed(seed);
+			second.setSeed(seed ^ SECOND_PLAYER_SEED_MIX);
+		}
+		//welcome message is printed out
+		messageDisplayManager(WELCOME_MSG);
+		//the time left to each player, indexed by id, when the moves are timed
+		long[] clocks = timeControl == null ? null :
+				new long[]{0, timeControl.getInitialNanos(), timeControl.getInitialNanos()};
+		int numOfMoves = 0, winner;
+		boolean forfeit = false;
+		//the while loop that manages one match- a player marking the last stick, or running out of time when this
+		//forfeits the round, loses
+		while (true){
+			//calling the turn managing method for player 1
+			int move = singleTurnManager(first, board, roundStatistics, clocks);
+			if (move == FORFEITED_MOVE){
+				messageDisplayManager(PLAYER_MSG_PREFIX, ID_1, OUT_OF_TIME_MSG_SUFFIX);
+				messageDisplayManager(PLAYER2_VICTORY);
+				winner = ID_2;
+				forfeit = true;
+				break;
+			}
+			moveLog[numOfMoves++] = move;
+			//if game is done- the loop stops-
+			if (board.getNumberOfUnmarkedSticks() == 0) {
+				messageDisplayManager(PLAYER2_VICTORY);
+				winner = ID_2;
+				break;
+			} //calling the turn managing method for player 2
+			move = singleTurnManager(second, board, roundStatistics, clocks);
+			if (move == FORFEITED_MOVE){
+				messageDisplayManager(PLAYER_MSG_PREFIX, ID_2, OUT_OF_TIME_MSG_SUFFIX);
+				messageDisplayManager(PLAYER1_VICTORY);
+				winner = ID_1;
+				forfeit = true;
+				break;
+			}
+			moveLog[numOfMoves++] = move;
+			//if game is done- the loop stops-
+			if (board.getNumberOfUnmarkedSticks() == 0){
+				messageDisplayManager(PLAYER1_VICTORY);
+				winner = ID_1;
+				break;
+			}
+		}
+		if (roundStatistics != null){
+			roundStatistics.recordRound(numOfMoves);
+		}
+		if (recorder != null){
+			try {
+				recorder.writeRound(first.getPlayerType(), second.getPlayerType(), seed, winner, forfeit, moveLog,
+						numOfMoves);
+			} catch (IOException e){
+				throw new UncheckedIOException(e);
+			}
+		}
+		return winner;
 	}
 
     /**
@@ -84,92 +457,241 @@ public class Competition {
      * @param numRounds number of rounds to play.
      */
     public void playMultipleRounds(int numRounds) {
-		//initializing the round counting variable
-    	int roundsCount = 0;
-    	//printing the first message of the competition- a one notifying the number of rounds and the players
-		System.out.println("Starting a Nim competition of "+numRounds+" rounds between a "+player1.getTypeName()+
+		playMultipleRounds(numRounds, 1);
+	}
+
+	/**
+	 * Run the game for the given number of rounds, spreading the rounds over the given number of threads. Every
+	 * thread plays its rounds with its own copies of the players, so the players must not depend on each other's
+	 * state. Rounds are played on a single thread anyway when there is a human player or when messages are
+	 * displayed, since the messages of concurrent rounds would interleave.
+	 * @param numRounds number of rounds to play.
+	 * @param numThreads number of threads to play the rounds on.
+	 */
+	public void playMultipleRounds(int numRounds, int numThreads) {
+		//printing the first message of the competition- a one notifying the number of rounds and the players
+		output.println("Starting a Nim competition of "+numRounds+" rounds between a "+player1.getTypeName()+
 				" player and a "+player2.getTypeName()+" player.");
-		//the while loop that manages the amount of matches is initialized-
-		while (roundsCount < numRounds) {
-			//create a Board
-			Board board = new Board();
-			//welcome message is printed out
-			messageDisplayManager(WELCOME_MSG);
-			//the while loop that manages one match-
-			while(board.getNumberOfUnmarkedSticks() != 0){
-				//calling the turn managing method for player 1
-				singleTurnManager(player1, board);
-				//if game is done- the score is updated and the loop stops-
-				if (board.getNumberOfUnmarkedSticks() == 0) {
-					wins2++;
-					messageDisplayManager(PLAYER2_VICTORY);
-					break;
-				} //calling the turn managing method for player 2
-				singleTurnManager(player2, board);
-				//if game is done- the score is updated and the loop stops-
-				if (board.getNumberOfUnmarkedSticks() == 0){
-					wins1++;
-					messageDisplayManager(PLAYER1_VICTORY);
-					break;
-				}
-			} // after each turn, the rounds count is being updated-
-			roundsCount++;
+		if (numThreads <= 1 || verboseMode || player1.getPlayerType() == Player.HUMAN ||
+				player2.getPlayerType() == Player.HUMAN){
+			playRoundsSequentially(numRounds);
+		} else {
+			playRoundsInParallel(numRounds, numThreads);
 		} //goodbye message is printed out, informing the score-
-		System.out.println("The results are "+wins1+":"+wins2);
+		output.println("The results are "+wins1+":"+wins2);
+		if (timeControl != null){
+			output.println("Player "+ID_1+" ran out of time in "+timeouts1.sum()+" moves, player "+ID_2+" in "+
+					timeouts2.sum()+" moves");
+		}
+		output.flush();
+	}
+
+	/**
+	 * Plays the given number of rounds on the calling thread, updating the score, without the messages of the start
+	 * and of the results of the competition. A competition created without messages plays its rounds without
+	 * printing anything, so many competitions can be played at once, as a Tournament does.
+	 * @param numRounds number of rounds to play.
+	 */
+	public void playRoundsQuietly(int numRounds){
+		playRoundsSequentially(numRounds);
+	}
+
+	/**
+	 * Plays the given number of rounds one after the other, updating the score after each round.
+	 * @param numRounds number of rounds to play.
+	 */
+	private void playRoundsSequentially(int numRounds){
+		int[] moveLog = new int[MAX_MOVES_IN_ROUND];
+		//the loop that manages the amount of matches-
+		for (int roundsCount = 0; roundsCount < numRounds; roundsCount++) {
+			if (playSingleRound(player1, player2, roundsCount, moveLog, statistics) == ID_1){
+				wins1++;
+			} else {
+				wins2++;
+			}
+		}
 	}
 
 	/**
-	 * Returns the integer representing the type of player 1; returns -1 on bad
+	 * Plays the given number of rounds on a pool of the given number of threads. The rounds are split into
+	 * batches, several per thread so a slow batch does not hold the whole run back. Every batch counts its own
+	 * victories and collects its own statistics, and adds them to the shared ones once, when it is done. The threads
+	 * of the pool are taken from the ThreadBudget while the rounds are played, so the players do not add threads of
+	 * their own on top of them.
+	 * @param numRounds number of rounds to play.
+	 * @param numThreads number of threads to play the rounds on.
+	 */
+	private void playRoundsInParallel(int numRounds, int numThreads){
+		int numBatches = (int) Math.min(numRounds, (long) numThreads * BATCHES_PER_THREAD);
+		LongAdder totalWins1 = new LongAdder();
+		LongAdder totalWins2 = new LongAdder();
+		List<Callable<Void>> batches = new ArrayList<>(numBatches);
+		int firstRound = 0;
+		for (int batch = 0; batch < numBatches; batch++){
+			//the rounds are split as evenly as possible between the batches
+			int batchRounds = numRounds / numBatches + (batch < numRounds % numBatches ? 1 : 0);
+			int batchFirstRound = firstRound;
+			firstRound += batchRounds;
+			batches.add(() -> {
+				Player first = copyPlayer(player1);
+				Player second = copyPlayer(player2);
+				int[] moveLog = new int[MAX_MOVES_IN_ROUND];
+				GameStatistics batchStatistics = statistics == null ? null : new GameStatistics();
+				int batchWins1 = 0;
+				for (int round = batchFirstRound; round < batchFirstRound + batchRounds; round++){
+					if (playSingleRound(first, second, round, moveLog, batchStatistics) == ID_1){
+						batchWins1++;
+					}
+				}
+				//the copies of the players are dropped with the batch, along with any move they were late on
+				lateMoves.remove(first);
+				lateMoves.remove(second);
+				totalWins1.add(batchWins1);
+				totalWins2.add(batchRounds - batchWins1);
+				if (batchStatistics != null){
+					synchronized (statistics){
+						statistics.merge(batchStatistics);
+					}
+				}
+				return null;
+			});
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		//the calling thread only waits for the pool, so the pool takes its place and one more thread less
+		int reservedThreads = ThreadBudget.acquire(numThreads - 1);
+		try {
+			for (Future<Void> result : pool.invokeAll(batches)){
+				result.get();
+			}
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while playing the rounds", e);
+		} catch (ExecutionException e){
+			throw new IllegalStateException("A round could not be played", e.getCause());
+		} finally {
+			pool.shutdownNow();
+			ThreadBudget.release(reservedThreads);
+		}
+		wins1 += totalWins1.intValue();
+		wins2 += totalWins2.intValue();
+	}
+
+	/**
+	 * Returns a new player of the same type, id and settings as the given one, with a state of its own.
+	 */
+	private static Player copyPlayer(Player player){
+		Player copy = new Player(player.getPlayerType(), player.getPlayerId());
+		copy.setRandomSamplingMode(player.getRandomSamplingMode());
+		return copy;
+	}
+
+	/**
+	 * Returns the integer representing the type of player 1, given by its number or its name; returns -1 on bad
 	 * input.
 	 */
 	private static int parsePlayer1Type(String[] args){
-		try{
-			return Integer.parseInt(args[0]);
-		} catch (Exception E){
-			return -1;
-		}
+		return args.length > 0 ? StrategyRegistry.lookup(args[0]) : -1;
 	}
 
 	/**
-	 * Returns the integer representing the type of player 2; returns -1 on bad
+	 * Returns the integer representing the type of player 2, given by its number or its name; returns -1 on bad
 	 * input.
 	 */
 	private static int parsePlayer2Type(String[] args){
+		return args.length > 1 ? StrategyRegistry.lookup(args[1]) : -1;
+	}
+
+	/**
+	 * Returns the integer representing the type of player 2; returns -1 on bad
+	 * input.
+	 */
+	private static int parseNumberOfGames(String[] args){
 		try{
-			return Integer.parseInt(args[1]);
+			return Integer.parseInt(args[2]);
 		} catch (Exception E){
 			return -1;
 		}
 	}
 
 	/**
-	 * Returns the integer representing the type of player 2; returns -1 on bad
+	 * Returns the number of threads to play the rounds on, which is 1 if it is not given; returns -1 on bad
 	 * input.
 	 */
-	private static int parseNumberOfGames(String[] args){
+	private static int parseNumberOfThreads(String[] args){
+		if (args.length <= THREADS_ARG_INDEX){
+			return 1;
+		}
 		try{
-			return Integer.parseInt(args[2]);
+			return Integer.parseInt(args[THREADS_ARG_INDEX]);
 		} catch (Exception E){
 			return -1;
 		}
 	}
 
+	/**
+	 * Returns the path of the file to record the rounds to, or null if it is not given.
+	 */
+	private static Path parseRecordPath(String[] args){
+		if (args.length <= RECORD_ARG_INDEX){
+			return null;
+		}
+		return Paths.get(args[RECORD_ARG_INDEX]);
+	}
+
 	/**
 	 * a method that manages all the messages that needs to be printed only if there is a displayMessage = true
 	 * @param message a string to be or not to be printed
 	 */
 	private void messageDisplayManager(String message){
 		if (verboseMode){
-			System.out.println(message);
+			output.println(message);
+		}
+	}
+
+	/**
+	 * manages a message about a player, given in parts. the parts are only joined into a string if the message is
+	 * printed, so a silent game does not build any string.
+	 * @param prefix the part of the message before the player id
+	 * @param playerId the id of the player
+	 * @param suffix the part of the message after the player id
+	 */
+	private void messageDisplayManager(String prefix, int playerId, String suffix){
+		if (verboseMode){
+			output.println(prefix+playerId+suffix);
+		}
+	}
+
+	/**
+	 * manages a message about a move of a player, given in parts. like the other message managers, the parts are
+	 * only joined into a string if the message is printed.
+	 * @param prefix the part of the message before the player id
+	 * @param playerId the id of the player
+	 * @param infix the part of the message between the player id and the move
+	 * @param packedMove the move, packed by Move.pack()
+	 */
+	private void messageDisplayManager(String prefix, int playerId, String infix, int packedMove){
+		if (verboseMode){
+			output.println(prefix+playerId+infix+Move.toString(packedMove));
 		}
 	}
 
 	/**
 	 * The method runs a Nim competition between two players according to the three user-specified arguments.
-	 * (1) The type of the first player, which is a positive integer between 1 and 4: 1 for a Random computer
-	 *     player, 2 for a Heuristic computer player, 3 for a Smart computer player and 4 for a human player.
-	 * (2) The type of the second player, which is a positive integer between 1 and 4.
+	 * (1) The type of the first player, which is a positive integer between 1 and 6: 1 for a Random computer
+	 *     player, 2 for a Heuristic computer player, 3 for a Smart computer player, 4 for a human player, 5 for
+	 *     a Monte Carlo tree search computer player and 6 for a Negamax search computer player. The type may also
+	 *     be given by its name, such as "smart" or "monte-carlo", and types added to the StrategyRegistry are
+	 *     accepted as well.
+	 * (2) The type of the second player, given like the type of the first player.
 	 * (3) The number of rounds to be played in the competition.
+	 * (4) Optional: the number of threads to play the rounds on, 1 if it is not given.
+	 * (5) Optional: the path of a file to record the rounds to, in the format described by GameRecordFormat.
+	 * When the system property nim.statistics is true, statistics of the rounds are printed after the results.
+	 * The system property nim.timeControl sets the time of the moves of the computer players, in the form accepted
+	 * by TimeControl.parse(); a player running out of time has a fallback move played for it, unless the system
+	 * property nim.timeoutPolicy is forfeit, in which case it loses the round.
+	 * The inputs of a human player are read from the console, or from the file given by the system property
+	 * nim.humanScript, holding the same integers the player would have typed.
 	 * @param args an array of string representations of the three input arguments, as detailed above.
 	 */
 	public static void main(String[] args) {
@@ -177,20 +699,75 @@ public class Competition {
 		int p1Type = parsePlayer1Type(args);
 		int p2Type = parsePlayer2Type(args);
 		int numGames = parseNumberOfGames(args);
-		//initialize a scanner object-
-		Scanner scanner = new Scanner(System.in);
+		int numThreads = parseNumberOfThreads(args);
+		TimeControl timeControl = null;
+		String timeControlText = System.getProperty(TIME_CONTROL_PROPERTY);
+		if (timeControlText != null){
+			//a malformed number is a NumberFormatException, which is an IllegalArgumentException too
+			try {
+				timeControl = TimeControl.parse(timeControlText);
+			} catch (IllegalArgumentException e){
+				System.out.println("Invalid time control: "+timeControlText);
+				System.out.println(TIME_CONTROL_USAGE_MSG);
+				return;
+			}
+		}
+		//initialize the input of the human player, from the console or from a script-
+		ScriptedIntReader input;
+		String humanScript = System.getProperty(HUMAN_SCRIPT_PROPERTY);
+		try {
+			input = humanScript == null ? new ScriptedIntReader(System.in) :
+					ScriptedIntReader.open(Paths.get(humanScript));
+		} catch (IOException e){
+			System.out.println("Could not read the script of the human player: "+e.getMessage());
+			return;
+		}
         // create player1 object of p1Type type with id=1
-        Player player1 = new Player(p1Type,1,scanner);
+        Player player1 = new Player(p1Type,1,input);
 		// create player2 object of p2Type type with id=2
-        Player player2 = new Player(p2Type,2,scanner);
+        Player player2 = new Player(p2Type,2,input);
         boolean verboseMode = false;
         if ((player1.getPlayerType() == 4) || ((player2.getPlayerType() == 4))){
         	verboseMode = true; }
 
 		// initializing a competition object according to the displayMessage input received as an argument-
         Competition newCompetition = new Competition(player1, player2, verboseMode);
-        newCompetition.playMultipleRounds(numGames);
-        scanner.close();
+		if (Boolean.getBoolean(STATISTICS_PROPERTY)){
+			newCompetition.setStatistics(new GameStatistics());
+		}
+		if (timeControl != null){
+			newCompetition.setTimeControl(timeControl,
+					FORFEIT_POLICY.equals(System.getProperty(TIMEOUT_POLICY_PROPERTY)));
+		}
+		Path recordPath = parseRecordPath(args);
+		if (recordPath == null){
+			newCompetition.playMultipleRounds(numGames, numThreads);
+		} else {
+			try (GameRecordWriter writer = GameRecordWriter.create(recordPath)){
+				newCompetition.setRecorder(writer, System.nanoTime());
+				newCompetition.playMultipleRounds(numGames, numThreads);
+			} catch (IOException e){
+				System.out.println("Could not record the rounds: "+e.getMessage());
+			}
+		}
+		if (newCompetition.statistics != null){
+			newCompetition.output.println(newCompetition.statistics.toString());
+			if (MonteCarloSearch.getReport() != null){
+				newCompetition.output.println(MonteCarloSearch.getReport());
+			}
+			if (NegamaxSearch.getReport() != null){
+				newCompetition.output.println(NegamaxSearch.getReport());
+			}
+			if (CachingStrategy.getReport() != null){
+				newCompetition.output.println(CachingStrategy.getReport());
+			}
+			newCompetition.output.flush();
+		}
+        try {
+			input.close();
+		} catch (IOException e){
+			throw new UncheckedIOException(e);
+		}
 	}	
 	
 }
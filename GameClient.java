@@ -0,0 +1,61 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The GameClient class connects the console to a GameServer: every line the server sends is printed, and every line
+ * entered on the console is sent to the server. The client ends when the server closes the connection.
+ */
+public class GameClient {
+
+	private static final String DEFAULT_HOST = "localhost";
+	private static final String READER_THREAD_NAME = "server-reader";
+
+	/**
+	 * Connects to a game server and plays through the console.
+	 * @param args optional: the host and the port of the server, localhost and GameServer.DEFAULT_PORT if they are
+	 * not given.
+	 */
+	public static void main(String[] args){
+		String host = args.length > 0 ? args[0] : DEFAULT_HOST;
+		int port;
+		try {
+			port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+		} catch (NumberFormatException e){
+			System.out.println("Usage: java GameClient [host [port]]");
+			return;
+		}
+		try (Socket socket = new Socket(host, port)){
+			BufferedReader fromServer = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			Thread reader = new Thread(() -> {
+				try {
+					String line;
+					while ((line = fromServer.readLine()) != null){
+						System.out.println(line);
+					}
+				} catch (IOException e){
+					//the connection was closed while reading, which ends the game as well.
+				}
+			}, READER_THREAD_NAME);
+			reader.start();
+			PrintWriter toServer = new PrintWriter(
+					new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+			BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
+			String line;
+			while (reader.isAlive() && (line = console.readLine()) != null){
+				toServer.println(line);
+			}
+			socket.shutdownOutput();
+			reader.join();
+		} catch (IOException e){
+			System.out.println("Could not connect to the server: " + e.getMessage());
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * The GameRecordFormat class describes the binary format of game record files, written by GameRecordWriter. All the
+ * values are in little-endian byte order.
+ * <p>
+ * A file starts with a header:
+ * <ul>
+ *     <li>The magic number "NIMG" (4 bytes).</li>
+ *     <li>The version of the format (4 bytes).</li>
+ *     <li>The geometry hash of the board the games were played on, as returned by Board.getGeometryHash()
+ *     (8 bytes).</li>
+ * </ul>
+ * The header is followed by one record per round, in the order the rounds finished:
+ * <ul>
+ *     <li>The type of the first player (1 byte) and of the second player (1 byte).</li>
+ *     <li>The seed the random generators of the players were set to for the round (8 bytes).</li>
+ *     <li>The id of the winner, 1 or 2, with FORFEIT_FLAG set if the loser ran out of time instead of marking the
+ *     last stick (1 byte).</li>
+ *     <li>The number of moves in the round (2 bytes, unsigned).</li>
+ *     <li>The moves, in the order they were played, the first player making the first move (2 bytes each).</li>
+ * </ul>
+ * A move is encoded in 16 bits as its row in bits 8-11, its left bound in bits 4-7 and its right bound in bits 0-3,
+ * which fits any board of up to 15 rows of up to 15 sticks.
+ * <p>
+ * Version 1 of the format had no FORFEIT_FLAG, and is otherwise the same.
+ */
+public final class GameRecordFormat {
+
+	/** The magic number at the beginning of every game record file, "NIMG" read as a little-endian int. */
+	public static final int MAGIC = 0x474d494e;
+	/** The current version of the file format. */
+	public static final int VERSION = 2;
+	/** The oldest version of the file format which can still be read. */
+	public static final int FIRST_VERSION = 1;
+	/** The size of the file header in bytes. */
+	public static final int FILE_HEADER_SIZE = 16;
+	/** The size in bytes of the part of a round record before its moves. */
+	public static final int ROUND_HEADER_SIZE = 13;
+	/** The offsets of the fields of a round record, from the beginning of the record. */
+	public static final int PLAYER1_TYPE_OFFSET = 0;
+	public static final int PLAYER2_TYPE_OFFSET = 1;
+	public static final int SEED_OFFSET = 2;
+	public static final int WINNER_OFFSET = 10;
+	public static final int NUM_OF_MOVES_OFFSET = 11;
+	/** Set in the winner field of a round the loser forfeited by running out of time. */
+	public static final int FORFEIT_FLAG = 0x80;
+	/** The bits of the winner field holding the id of the winner. */
+	public static final int WINNER_MASK = 0x0f;
+	/** The size of a single encoded move in bytes. */
+	public static final int MOVE_SIZE = 2;
+
+	private static final int MOVE_FIELD_BITS = 4;
+	private static final int MOVE_FIELD_MASK = (1 << MOVE_FIELD_BITS) - 1;
+
+	private GameRecordFormat(){
+	}
+
+	/**
+	 * @param packedMove a legal move, packed by Move.pack().
+	 * @return the move encoded in 16 bits.
+	 */
+	public static short encodeMove(int packedMove){
+		return (short) ((Move.unpackRow(packedMove) << (2 * MOVE_FIELD_BITS)) |
+				(Move.unpackLeftBound(packedMove) << MOVE_FIELD_BITS) | Move.unpackRightBound(packedMove));
+	}
+
+	/**
+	 * @param encodedMove a move encoded by encodeMove().
+	 * @return the move, packed by Move.pack().
+	 */
+	public static int decodeMove(short encodedMove){
+		return Move.pack((encodedMove >>> (2 * MOVE_FIELD_BITS)) & MOVE_FIELD_MASK,
+				(encodedMove >>> MOVE_FIELD_BITS) & MOVE_FIELD_MASK, encodedMove & MOVE_FIELD_MASK);
+	}
+
+	/**
+	 * @return the size in bytes of a round record with the given number of moves.
+	 */
+	public static int getRoundSize(int numOfMoves){
+		return ROUND_HEADER_SIZE + numOfMoves * MOVE_SIZE;
+	}
+}
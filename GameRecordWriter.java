@@ -0,0 +1,87 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The GameRecordWriter class writes the rounds played by a Competition to a game record file, in the format described
+ * by GameRecordFormat. The records are collected in a buffer and written through a file channel whenever the buffer
+ * fills up, so recording a round costs little more than copying its moves. Rounds may be written from several
+ * threads at once.
+ */
+public class GameRecordWriter implements Closeable {
+
+	/** The size of the buffer the records are collected in, in bytes. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+	private GameRecordWriter(FileChannel fileChannel){
+		channel = fileChannel;
+	}
+
+	/**
+	 * Creates a game record file at the given path, replacing any existing file, and writes its header.
+	 * @param path the path of the file.
+	 * @return a writer of rounds to the file.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public static GameRecordWriter create(Path path) throws IOException {
+		GameRecordWriter writer = new GameRecordWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+		writer.buffer.putInt(GameRecordFormat.MAGIC).putInt(GameRecordFormat.VERSION).putLong(Board.getGeometryHash());
+		return writer;
+	}
+
+	/**
+	 * Writes the record of a single round.
+	 * @param player1Type the type of the first player.
+	 * @param player2Type the type of the second player.
+	 * @param seed the seed the random generators of the players were set to for the round.
+	 * @param winner the id of the winner, 1 or 2.
+	 * @param forfeit true if the loser ran out of time and forfeited the round, instead of marking the last stick.
+	 * @param moves the moves of the round, packed by Move.pack(), in the order they were played.
+	 * @param numOfMoves the number of moves in the round, which are the first ones in the given array.
+	 * @throws IOException if the record cannot be written.
+	 */
+	public synchronized void writeRound(int player1Type, int player2Type, long seed, int winner, boolean forfeit,
+										int[] moves, int numOfMoves) throws IOException {
+		if (buffer.remaining() < GameRecordFormat.getRoundSize(numOfMoves)){
+			drain();
+		}
+		buffer.put((byte) player1Type).put((byte) player2Type).putLong(seed)
+				.put((byte) (forfeit ? winner | GameRecordFormat.FORFEIT_FLAG : winner))
+				.putShort((short) numOfMoves);
+		for (int i = 0; i < numOfMoves; i++){
+			buffer.putShort(GameRecordFormat.encodeMove(moves[i]));
+		}
+	}
+
+	/**
+	 * Writes the records in the buffer to the file, and closes it.
+	 * @throws IOException if the records cannot be written.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			drain();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes the records in the buffer to the file, and empties the buffer.
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
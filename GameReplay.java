@@ -0,0 +1,267 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The GameReplay class analyses game record files written by GameRecordWriter. Every round is replayed move by move
+ * on a board, which re-validates the moves and the recorded winner, and every move is checked against the solved
+ * outcomes of the board to find the moves which turned a winning position into a losing one. A round forfeited by
+ * running out of time is valid when its moves are legal and sticks are left, and is won by the player which did
+ * not have to move.
+ * <p>
+ * The files are memory-mapped and split into chunks at round boundaries, and the chunks are analysed in parallel.
+ * The records are read directly from the mapped files, and every chunk collects its own statistics, which are
+ * merged once all the chunks are done.
+ */
+public class GameReplay {
+
+	/** The approximate size of a chunk, in bytes. */
+	private static final long CHUNK_SIZE = 1 << 23;
+	/** The largest part of a file which is mapped at once while the file is split into chunks. */
+	private static final long WINDOW_SIZE = 1 << 30;
+	/** The largest player type, used to size the statistics kept per player type. */
+	private static final int MAX_PLAYER_TYPE = StrategyRegistry.MAX_PLAYER_TYPE;
+	private static final int NUM_OF_STICKS = new Board().getNumberOfUnmarkedSticks();
+	private static final int ID_1 = 1;
+	private static final int ID_2 = 2;
+	private static final String USAGE_MSG = "Usage: java GameReplay <game record file>...";
+
+	/**
+	 * The statistics collected from the replayed rounds.
+	 */
+	private static class ReplayStatistics {
+
+		private long rounds;
+		private long moves;
+		private long invalidRounds; //rounds with a corrupt type or an illegal move, or which do not end as recorded.
+		private long forfeits; //rounds the loser forfeited by running out of time.
+		private long winnerMismatches; //rounds whose recorded winner is not the winner of the replay.
+		private final long[] winsBySeat = new long[ID_2+1];
+		private final long[] movesByType = new long[MAX_PLAYER_TYPE+1];
+		private final long[] losingMovesByType = new long[MAX_PLAYER_TYPE+1];
+		private final long[] movesByUnmarkedSticks = new long[NUM_OF_STICKS+1];
+		private final long[] losingMovesByUnmarkedSticks = new long[NUM_OF_STICKS+1];
+
+		/**
+		 * Adds the statistics of the given object to these statistics.
+		 */
+		private void merge(ReplayStatistics other){
+			rounds += other.rounds;
+			moves += other.moves;
+			invalidRounds += other.invalidRounds;
+			forfeits += other.forfeits;
+			winnerMismatches += other.winnerMismatches;
+			add(winsBySeat, other.winsBySeat);
+			add(movesByType, other.movesByType);
+			add(losingMovesByType, other.losingMovesByType);
+			add(movesByUnmarkedSticks, other.movesByUnmarkedSticks);
+			add(losingMovesByUnmarkedSticks, other.losingMovesByUnmarkedSticks);
+		}
+
+		private static void add(long[] sums, long[] values){
+			for (int i = 0; i < sums.length; i++){
+				sums[i] += values[i];
+			}
+		}
+
+		/**
+		 * Prints the statistics to the console.
+		 */
+		private void print(){
+			System.out.println("Rounds: "+rounds+", moves: "+moves);
+			System.out.println("Wins of player 1: "+winsBySeat[ID_1]+", wins of player 2: "+winsBySeat[ID_2]);
+			System.out.println("Rounds forfeited by running out of time: "+forfeits);
+			System.out.println("Invalid rounds: "+invalidRounds+", rounds with a wrong winner: "+winnerMismatches);
+			for (int type = 0; type <= MAX_PLAYER_TYPE; type++){
+				if (movesByType[type] > 0){
+					System.out.println("Player type "+type+": "+movesByType[type]+" moves, "+
+							losingMovesByType[type]+" of them losing a won position");
+				}
+			}
+			System.out.println("Unmarked sticks before the move: moves (losing moves)");
+			for (int sticks = NUM_OF_STICKS; sticks > 0; sticks--){
+				if (movesByUnmarkedSticks[sticks] > 0){
+					System.out.println(sticks+": "+movesByUnmarkedSticks[sticks]+" ("+
+							losingMovesByUnmarkedSticks[sticks]+")");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Splits the given game record file into chunks of whole rounds, of about CHUNK_SIZE bytes each.
+	 * @param channel a channel of the file.
+	 * @param path the path of the file, used in messages.
+	 * @return the start and end offsets of every chunk.
+	 * @throws IOException if the file cannot be read, or is not a game record file of the current board.
+	 */
+	private static List<long[]> splitIntoChunks(FileChannel channel, Path path) throws IOException {
+		long size = channel.size();
+		if (size < GameRecordFormat.FILE_HEADER_SIZE){
+			throw new IOException(path+" is not a game record file");
+		}
+		MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, GameRecordFormat.FILE_HEADER_SIZE);
+		window.order(ByteOrder.LITTLE_ENDIAN);
+		int version = window.getInt(4);
+		if (window.getInt(0) != GameRecordFormat.MAGIC || version < GameRecordFormat.FIRST_VERSION ||
+				version > GameRecordFormat.VERSION){
+			throw new IOException(path+" is not a game record file");
+		}
+		if (window.getLong(8) != Board.getGeometryHash()){
+			throw new IOException(path+" was recorded on another board");
+		}
+		List<long[]> chunks = new ArrayList<>();
+		long offset = GameRecordFormat.FILE_HEADER_SIZE, chunkStart = offset, windowStart = 0;
+		while (offset + GameRecordFormat.ROUND_HEADER_SIZE <= size){
+			//only the number of moves of every round is read, to find where the next round starts
+			if (offset + GameRecordFormat.ROUND_HEADER_SIZE > windowStart + window.capacity()){
+				windowStart = offset;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, size-offset));
+				window.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			int numOfMoves = Short.toUnsignedInt(window.getShort(
+					(int) (offset-windowStart) + GameRecordFormat.NUM_OF_MOVES_OFFSET));
+			long next = offset + GameRecordFormat.getRoundSize(numOfMoves);
+			if (next > size){
+				break;
+			}
+			offset = next;
+			if (offset - chunkStart >= CHUNK_SIZE){
+				chunks.add(new long[]{chunkStart, offset});
+				chunkStart = offset;
+			}
+		}
+		if (offset != size){
+			System.out.println(path+" ends with a truncated round, which is ignored");
+		}
+		if (offset > chunkStart){
+			chunks.add(new long[]{chunkStart, offset});
+		}
+		return chunks;
+	}
+
+	/**
+	 * Replays all the rounds in the given chunk of a game record file.
+	 * @param channel a channel of the file.
+	 * @param start the offset of the first round of the chunk.
+	 * @param end the offset right after the last round of the chunk.
+	 * @return the statistics of the rounds in the chunk.
+	 * @throws IOException if the chunk cannot be read.
+	 */
+	private static ReplayStatistics replayChunk(FileChannel channel, long start, long end) throws IOException {
+		MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end-start);
+		chunk.order(ByteOrder.LITTLE_ENDIAN);
+		OutcomeTable outcomes = NimSolver.getTable();
+		ReplayStatistics statistics = new ReplayStatistics();
+		int offset = 0;
+		while (offset < chunk.limit()){
+			int type1 = Byte.toUnsignedInt(chunk.get(offset + GameRecordFormat.PLAYER1_TYPE_OFFSET));
+			int type2 = Byte.toUnsignedInt(chunk.get(offset + GameRecordFormat.PLAYER2_TYPE_OFFSET));
+			int winnerField = chunk.get(offset + GameRecordFormat.WINNER_OFFSET);
+			int winner = winnerField & GameRecordFormat.WINNER_MASK;
+			boolean forfeit = (winnerField & GameRecordFormat.FORFEIT_FLAG) != 0;
+			int numOfMoves = Short.toUnsignedInt(chunk.getShort(offset + GameRecordFormat.NUM_OF_MOVES_OFFSET));
+			int movesOffset = offset + GameRecordFormat.ROUND_HEADER_SIZE;
+			statistics.rounds++;
+			Board board = new Board();
+			//a type above MAX_PLAYER_TYPE can only come from a corrupt record, and its round is not replayed
+			boolean valid = type1 <= MAX_PLAYER_TYPE && type2 <= MAX_PLAYER_TYPE;
+			for (int i = 0; i < numOfMoves && valid; i++){
+				int type = i % 2 == 0 ? type1 : type2;
+				int before = board.getBitboard();
+				int move = GameRecordFormat.decodeMove(chunk.getShort(movesOffset + i * GameRecordFormat.MOVE_SIZE));
+				if (board.markStickSequence(move) != 0){
+					valid = false;
+					break;
+				}
+				int unmarkedBefore = Integer.bitCount(before);
+				statistics.moves++;
+				statistics.movesByType[type]++;
+				statistics.movesByUnmarkedSticks[unmarkedBefore]++;
+				//a losing move leaves the opponent in a won position, after the mover was in a won position
+				if (outcomes.isWinning(before) && outcomes.isWinning(board.getBitboard())){
+					statistics.losingMovesByType[type]++;
+					statistics.losingMovesByUnmarkedSticks[unmarkedBefore]++;
+				}
+			}
+			//a forfeited round stops with sticks left, and one which is played out with none
+			if (!valid || (board.getNumberOfUnmarkedSticks() == 0) == forfeit){
+				statistics.invalidRounds++;
+			} else {
+				if (forfeit){
+					statistics.forfeits++;
+				}
+				//the player which ran out of time is the one which was to move next, and loses; otherwise the player
+				//marking the last stick loses, which is the opponent of the one to move next
+				int nextMover = numOfMoves % 2 == 0 ? ID_1 : ID_2;
+				int loser = forfeit ? nextMover : (nextMover == ID_1 ? ID_2 : ID_1);
+				int replayWinner = loser == ID_1 ? ID_2 : ID_1;
+				statistics.winsBySeat[replayWinner]++;
+				if (replayWinner != winner){
+					statistics.winnerMismatches++;
+				}
+			}
+			offset = movesOffset + numOfMoves * GameRecordFormat.MOVE_SIZE;
+		}
+		return statistics;
+	}
+
+	/**
+	 * Analyses the given game record files, and prints the statistics of all of their rounds.
+	 * @param args the paths of the game record files.
+	 */
+	public static void main(String[] args){
+		if (args.length == 0){
+			System.out.println(USAGE_MSG);
+			return;
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		List<FileChannel> channels = new ArrayList<>();
+		List<Future<ReplayStatistics>> results = new ArrayList<>();
+		ReplayStatistics total = new ReplayStatistics();
+		try {
+			for (String arg : args){
+				Path path = Paths.get(arg);
+				FileChannel channel;
+				try {
+					channel = FileChannel.open(path, StandardOpenOption.READ);
+					channels.add(channel);
+					for (long[] chunk : splitIntoChunks(channel, path)){
+						Callable<ReplayStatistics> task = () -> replayChunk(channel, chunk[0], chunk[1]);
+						results.add(pool.submit(task));
+					}
+				} catch (IOException e){
+					System.out.println("Skipping "+path+": "+e.getMessage());
+				}
+			}
+			for (Future<ReplayStatistics> result : results){
+				total.merge(result.get());
+			}
+			total.print();
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e){
+			System.out.println("Could not replay the rounds: "+e.getCause());
+		} finally {
+			pool.shutdownNow();
+			for (FileChannel channel : channels){
+				try {
+					channel.close();
+				} catch (IOException e){
+					//the file was only read, so nothing is lost.
+				}
+			}
+		}
+	}
+}
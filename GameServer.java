@@ -0,0 +1,190 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The GameServer class hosts Nim competitions between human players connected over TCP and computer players, on the
+ * local host only. Every connection is a session of its own: the human chooses the type of the computer player and
+ * the number of rounds, and then plays as the first player, through the same prompts a human player gets on the
+ * console, sent and answered one line at a time. GameClient connects a console to a server.
+ * <p>
+ * Every session runs on a thread of its own, which is a virtual thread when the Java runtime has them, so a single
+ * server can hold thousands of sessions waiting for their humans. Older runtimes get a platform thread per session
+ * instead. A session keeps little more than its board, its players and small buffers for its socket. A Negamax
+ * opponent gets a small search table, of 2^SESSION_TABLE_BITS entries unless the system property
+ * nim.server.tableBits gives another size, which it only allocates on its first move, so thousands of sessions do
+ * not hold a full-size table each.
+ */
+public class GameServer implements Closeable {
+
+	/** The port the server listens on when no port is given. */
+	public static final int DEFAULT_PORT = 7777;
+	/** The number of connections the operating system holds until the server accepts them. */
+	private static final int BACKLOG = 1 << 10;
+	private static final int MAX_ROUNDS = 1000;
+	/** The system property holding the size of the search table of a Negamax opponent, and its default: 2^14 entries
+	 * of 16 bytes, 256 KB. */
+	private static final String TABLE_BITS_PROPERTY = "nim.server.tableBits";
+	private static final int SESSION_TABLE_BITS = 14;
+	private static final String SESSION_THREAD_NAME = "game-session";
+	private static final String VIRTUAL_THREADS_FACTORY = "newVirtualThreadPerTaskExecutor";
+	private static final String WELCOME_MSG = "Welcome to the Nim game server!";
+	private static final String OPPONENT_REQUEST = "Enter the type of your opponent, by number or by name:";
+	private static final String UNKNOWN_OPPONENT = "Not a computer player type";
+	private static final String ROUNDS_REQUEST = "Enter the number of rounds, between 1 and " + MAX_ROUNDS + ":";
+	private static final String GOODBYE_MSG = "Goodbye!";
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService sessions;
+	private final boolean virtualThreads;
+
+	/**
+	 * Opens a server on the given port of the local host. The server accepts no connection until serve() is called.
+	 * @param port the port, or 0 for any free port.
+	 * @throws IOException if the port cannot be listened on.
+	 */
+	public GameServer(int port) throws IOException {
+		serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+		ExecutorService executor;
+		try {
+			Method factory = Executors.class.getMethod(VIRTUAL_THREADS_FACTORY);
+			executor = (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e){
+			//a runtime without virtual threads.
+			executor = null;
+		}
+		virtualThreads = executor != null;
+		sessions = virtualThreads ? executor : Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, SESSION_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return the port the server listens on.
+	 */
+	public int getPort(){
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return true if the sessions run on virtual threads, false if they run on platform threads.
+	 */
+	public boolean usesVirtualThreads(){
+		return virtualThreads;
+	}
+
+	/**
+	 * Accepts connections and starts a session for each of them, until the server is closed.
+	 * @throws IOException if a connection cannot be accepted for another reason than the server being closed.
+	 */
+	public void serve() throws IOException {
+		while (!serverSocket.isClosed()){
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (SocketException e){
+				if (serverSocket.isClosed()){
+					return;
+				}
+				throw e;
+			}
+			sessions.execute(() -> runSession(socket));
+		}
+	}
+
+	/**
+	 * Stops accepting connections. The sessions which are already running go on until their humans are done.
+	 */
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		sessions.shutdown();
+	}
+
+	/**
+	 * Runs the session of the given connection: asks the human for the type of the computer player and the number
+	 * of rounds, and plays the competition. The session ends when the competition is done or the human disconnects.
+	 */
+	private static void runSession(Socket socket){
+		try (Socket connection = socket){
+			StreamOutput output = new StreamOutput(connection.getOutputStream());
+			Scanner input = new Scanner(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+			output.println(WELCOME_MSG);
+			output.println(OPPONENT_REQUEST);
+			output.flush();
+			int opponentType = StrategyRegistry.lookup(input.next());
+			while (opponentType == -1 || opponentType == Player.HUMAN){
+				output.println(UNKNOWN_OPPONENT);
+				output.println(OPPONENT_REQUEST);
+				output.flush();
+				opponentType = StrategyRegistry.lookup(input.next());
+			}
+			output.println(ROUNDS_REQUEST);
+			output.flush();
+			int numRounds = input.nextInt();
+			while (numRounds < 1 || numRounds > MAX_ROUNDS){
+				output.println(ROUNDS_REQUEST);
+				output.flush();
+				numRounds = input.nextInt();
+			}
+			Player human = new Player(Player.HUMAN, 1, input);
+			human.setOutput(output);
+			Player opponent = createOpponent(opponentType);
+			Competition competition = new Competition(human, opponent, true);
+			competition.setOutput(output);
+			competition.playMultipleRounds(numRounds);
+			output.println(GOODBYE_MSG);
+			output.flush();
+		} catch (IOException | UncheckedIOException | NoSuchElementException e){
+			//the human disconnected or sent something which is not an answer to the prompt, which ends the session.
+		}
+	}
+
+	/**
+	 * Returns the computer player of a session, of the given type, with a search table of the size of a session if
+	 * it is a Negamax player.
+	 */
+	private static Player createOpponent(int type){
+		if (type == Player.NEGAMAX){
+			return new Player(type, 2, NegamaxSearch.fromSystemProperties(Integer.getInteger(TABLE_BITS_PROPERTY,
+					SESSION_TABLE_BITS)));
+		}
+		return new Player(type, 2);
+	}
+
+	/**
+	 * Runs a game server on the local host until the process is stopped.
+	 * @param args optional: the port to listen on, DEFAULT_PORT if it is not given.
+	 */
+	public static void main(String[] args){
+		int port = DEFAULT_PORT;
+		if (args.length > 0){
+			try {
+				port = Integer.parseInt(args[0]);
+			} catch (NumberFormatException e){
+				System.out.println("Usage: java GameServer [port]");
+				return;
+			}
+		}
+		try (GameServer server = new GameServer(port)){
+			System.out.println("Listening on localhost:" + server.getPort() + ", with a " +
+					(server.usesVirtualThreads() ? "virtual" : "platform") + " thread per session");
+			server.serve();
+		} catch (IOException e){
+			System.out.println("Could not run the server: " + e.getMessage());
+		}
+	}
+}
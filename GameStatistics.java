@@ -0,0 +1,212 @@
+/**
+ * The GameStatistics class collects statistics about the rounds played by a Competition: a histogram of the time
+ * players of every type took to produce a move, the number of moves rejected by the board and the moves which ran
+ * out of time under a time control, and the distribution of the number of moves in a round. Collecting statistics
+ * is optional, and a competition without a GameStatistics object does not measure anything.
+ * <p>
+ * A GameStatistics object is not thread-safe. Every thread collects its own statistics, and these are merged once
+ * the threads are done.
+ */
+public class GameStatistics {
+
+	/** The largest player type, used to size the statistics kept per player type. */
+	private static final int MAX_PLAYER_TYPE = StrategyRegistry.MAX_PLAYER_TYPE;
+	/** Latencies are counted in buckets of powers of two nanoseconds, bucket i holding latencies below 2^i. */
+	private static final int NUM_OF_LATENCY_BUCKETS = Long.SIZE;
+	/** The maximal number of moves in a round, reached when every move marks a single stick. */
+	private static final int MAX_MOVES_IN_ROUND = new Board().getNumberOfUnmarkedSticks();
+	/** The error codes returned by Board.markStickSequence for moves out of bounds and over marked sticks. */
+	private static final int OUT_OF_BOUNDS = -1;
+	private static final int OVERLAPPING = -2;
+	/** The percentiles shown for every latency histogram. */
+	private static final int[] PERCENTILES = {50, 90, 99};
+	private static final int PERCENT = 100;
+
+	private final long[][] latencyHistograms = new long[MAX_PLAYER_TYPE+1][NUM_OF_LATENCY_BUCKETS];
+	private final long[] moveCounts = new long[MAX_PLAYER_TYPE+1];
+	private final long[] totalLatencies = new long[MAX_PLAYER_TYPE+1];
+	private final long[] outOfBoundsRejections = new long[MAX_PLAYER_TYPE+1];
+	private final long[] overlappingRejections = new long[MAX_PLAYER_TYPE+1];
+	private final long[] timeouts = new long[MAX_PLAYER_TYPE+1];
+	private final long[] totalOverruns = new long[MAX_PLAYER_TYPE+1];
+	private final long[] roundLengths = new long[MAX_MOVES_IN_ROUND+1];
+
+	/**
+	 * Records the time a player took to produce a move.
+	 * @param playerType the type of the player.
+	 * @param nanos the time the player took, in nanoseconds.
+	 * @throws IllegalArgumentException if the type is not between 0 and MAX_PLAYER_TYPE.
+	 */
+	public void recordMove(int playerType, long nanos){
+		int type = checkType(playerType);
+		//a latency of n > 0 nanoseconds has 64 - numberOfLeadingZeros(n) bits, so it is below 2^(that number).
+		int bucket = Math.min(NUM_OF_LATENCY_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0)));
+		latencyHistograms[type][bucket]++;
+		moveCounts[type]++;
+		totalLatencies[type] += nanos;
+	}
+
+	/**
+	 * Records a move of a player which was rejected by the board.
+	 * @param playerType the type of the player.
+	 * @param result the error code returned by Board.markStickSequence.
+	 * @throws IllegalArgumentException if the type is not between 0 and MAX_PLAYER_TYPE.
+	 */
+	public void recordRejection(int playerType, int result){
+		int type = checkType(playerType);
+		if (result == OUT_OF_BOUNDS){
+			outOfBoundsRejections[type]++;
+		} else if (result == OVERLAPPING){
+			overlappingRejections[type]++;
+		}
+	}
+
+	/**
+	 * Records a move of a player which ran out of time.
+	 * @param playerType the type of the player.
+	 * @param overrunNanos the time the player took after the time of the move was up, in nanoseconds.
+	 * @throws IllegalArgumentException if the type is not between 0 and MAX_PLAYER_TYPE.
+	 */
+	public void recordTimeout(int playerType, long overrunNanos){
+		int type = checkType(playerType);
+		timeouts[type]++;
+		totalOverruns[type] += overrunNanos;
+	}
+
+	/**
+	 * Returns the given player type, which indexes the statistics kept per type.
+	 * @throws IllegalArgumentException if the type is not between 0 and MAX_PLAYER_TYPE. A type out of range is a
+	 * bug of the caller, and is rejected rather than counted under another type.
+	 */
+	private static int checkType(int playerType){
+		if (!isValidType(playerType)){
+			throw new IllegalArgumentException("Player type out of range: "+playerType);
+		}
+		return playerType;
+	}
+
+	private static boolean isValidType(int playerType){
+		return playerType >= 0 && playerType <= MAX_PLAYER_TYPE;
+	}
+
+	/**
+	 * Records the number of moves played in a round.
+	 * @param numOfMoves the number of legal moves in the round.
+	 */
+	public void recordRound(int numOfMoves){
+		roundLengths[Math.min(numOfMoves, MAX_MOVES_IN_ROUND)]++;
+	}
+
+	/**
+	 * Adds the statistics of the given object to these statistics.
+	 * @param other the statistics to add.
+	 */
+	public void merge(GameStatistics other){
+		for (int type = 0; type <= MAX_PLAYER_TYPE; type++){
+			add(latencyHistograms[type], other.latencyHistograms[type]);
+		}
+		add(moveCounts, other.moveCounts);
+		add(totalLatencies, other.totalLatencies);
+		add(outOfBoundsRejections, other.outOfBoundsRejections);
+		add(overlappingRejections, other.overlappingRejections);
+		add(timeouts, other.timeouts);
+		add(totalOverruns, other.totalOverruns);
+		add(roundLengths, other.roundLengths);
+	}
+
+	private static void add(long[] sums, long[] values){
+		for (int i = 0; i < sums.length; i++){
+			sums[i] += values[i];
+		}
+	}
+
+	/**
+	 * @return the number of moves produced by players of the given type, or 0 if the type is out of range.
+	 */
+	public long getNumberOfMoves(int playerType){
+		return isValidType(playerType) ? moveCounts[playerType] : 0;
+	}
+
+	/**
+	 * @return the number of moves of players of the given type which were rejected for being out of bounds.
+	 */
+	public long getNumberOfOutOfBoundsRejections(int playerType){
+		return isValidType(playerType) ? outOfBoundsRejections[playerType] : 0;
+	}
+
+	/**
+	 * @return the number of moves of players of the given type which were rejected for covering marked sticks.
+	 */
+	public long getNumberOfOverlappingRejections(int playerType){
+		return isValidType(playerType) ? overlappingRejections[playerType] : 0;
+	}
+
+	/**
+	 * @return the number of moves of players of the given type which ran out of time.
+	 */
+	public long getNumberOfTimeouts(int playerType){
+		return isValidType(playerType) ? timeouts[playerType] : 0;
+	}
+
+	/**
+	 * @return the number of rounds which had the given number of moves.
+	 */
+	public long getNumberOfRounds(int numOfMoves){
+		return numOfMoves < 0 || numOfMoves > MAX_MOVES_IN_ROUND ? 0 : roundLengths[numOfMoves];
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile of the time players of the given type took to produce a move.
+	 * @param playerType the type of the players.
+	 * @param percentile the percentile, between 0 and 100.
+	 * @return the upper bound of the bucket of the percentile in nanoseconds, or 0 if there were no moves or the type
+	 * is out of range.
+	 */
+	public long getLatencyPercentile(int playerType, int percentile){
+		if (!isValidType(playerType)){
+			return 0;
+		}
+		long rank = (moveCounts[playerType] * percentile + PERCENT - 1) / PERCENT, seen = 0;
+		for (int bucket = 0; bucket < NUM_OF_LATENCY_BUCKETS && moveCounts[playerType] > 0; bucket++){
+			seen += latencyHistograms[playerType][bucket];
+			if (seen >= rank){
+				return bucket == NUM_OF_LATENCY_BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return a multi-line report of the statistics.
+	 */
+	public String toString(){
+		StringBuilder report = new StringBuilder();
+		for (int type = 0; type <= MAX_PLAYER_TYPE; type++){
+			if (moveCounts[type] == 0 && outOfBoundsRejections[type] == 0 && overlappingRejections[type] == 0){
+				continue;
+			}
+			report.append("Player type ").append(type).append(": ").append(moveCounts[type]).append(" moves");
+			if (moveCounts[type] > 0){
+				report.append(", mean ").append(totalLatencies[type] / moveCounts[type]).append(" ns");
+				for (int percentile : PERCENTILES){
+					report.append(", p").append(percentile).append(" < ")
+							.append(getLatencyPercentile(type, percentile)).append(" ns");
+				}
+			}
+			report.append(", rejected moves: ").append(outOfBoundsRejections[type]).append(" out of bounds, ")
+					.append(overlappingRejections[type]).append(" over marked sticks");
+			if (timeouts[type] > 0){
+				report.append(", out of time: ").append(timeouts[type]).append(" moves, mean overrun ")
+						.append(totalOverruns[type] / timeouts[type]).append(" ns");
+			}
+			report.append('\n');
+		}
+		report.append("Moves per round: rounds\n");
+		for (int length = 1; length <= MAX_MOVES_IN_ROUND; length++){
+			if (roundLengths[length] > 0){
+				report.append(length).append(": ").append(roundLengths[length]).append('\n');
+			}
+		}
+		return report.toString();
+	}
+}
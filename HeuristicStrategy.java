@@ -0,0 +1,71 @@
+/**
+ * The HeuristicStrategy class is the strategy of the Heuristic player, playing the misere nim strategy on the
+ * nim-sum and the segment counts kept by the board.
+ */
+public class HeuristicStrategy implements Strategy {
+
+	/**
+	 * Uses a winning heuristic for the Nim game to produce a move: the misere nim strategy, played on the nim-sum
+	 * and the segment counts the board keeps, so no scan of the board is needed.
+	 */
+	@Override
+	public int produceMove(Board board, long deadline){
+
+		//We only have single sticks
+		if(board.getNumberOfLargeSegments()==0){
+			return board.findSegmentMove(1);
+		}
+
+		//We are at a finishing state- the only large segment is marked so an odd number of single sticks remains
+		if(board.getNumberOfLargeSegments()==1){
+			int lastSegment = board.findSegmentMove(2);
+			int lastRight = Move.unpackRightBound(lastSegment);
+			if(board.getNumberOfSingletonSegments()%2 == 0){
+				lastRight--;
+			}
+			return Move.pack(Move.unpackRow(lastSegment),Move.unpackLeftBound(lastSegment),lastRight);
+		}
+
+		//The board is not symmetric, so we move on a segment whose Grundy value can be changed to zero the nim-sum
+		int nimSum = board.getNimSum();
+		if(nimSum != 0){
+			for(int row=1;row<board.getNumberOfRows()+1;row++){
+				for(int segment=1;segment<board.getNumberOfSegments(row)+1;segment++){
+					int length = board.getSegmentLength(row,segment);
+					int target = Board.getGrundyValue(length)^nimSum;
+					if(target < Board.getGrundyValue(length)){
+						return produceGrundyMove(row,board.getSegmentStart(row,segment),length,target);
+					}
+				}
+			}
+		}
+
+		//If we reached here, it means that the board is already symmetric, and then we simply mark one stick from
+		//the first large segment:
+		int firstSegment = board.findSegmentMove(2);
+		return Move.pack(Move.unpackRow(firstSegment),Move.unpackLeftBound(firstSegment),
+				Move.unpackLeftBound(firstSegment));
+	}
+
+	/**
+	 * an aid method for the produceMove method. it finds a move on the given segment which leaves segments
+	 * with the given Grundy value. Such a move exists whenever the target is smaller than the Grundy value of the
+	 * segment.
+	 * @param row the row of the segment
+	 * @param start the leftmost stick of the segment
+	 * @param length the number of sticks in the segment
+	 * @param target the Grundy value to leave
+	 * @return the move, packed by Move.pack()
+	 */
+	private static int produceGrundyMove(int row, int start, int length, int target){
+		//the move leaves 'left' sticks on its left and 'right' sticks on its right
+		for(int left=0;left<length;left++){
+			for(int right=0;left+right<length;right++){
+				if((Board.getGrundyValue(left)^Board.getGrundyValue(right)) == target){
+					return Move.pack(row,start+left,start+length-1-right);
+				}
+			}
+		}
+		return Move.NO_MOVE;
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * The HumanStrategy class is the strategy of the Human player, asking the user for every move through the console.
+ * The prompts are written to the console output, which is flushed before every input is read.
+ */
+public class HumanStrategy implements Strategy {
+
+	private static final String INPUT_REQUEST_MSG = "Press 1 to display the board. Press 2 to make a move:";
+	private static final String UNSUPPORTED_COMMAND ="Unsupported command";
+	private static final String ROW_INPUT_REQUEST = "Enter the row number:";
+	private static final String LEFT_INPUT_REQUEST = "Enter the index of the leftmost stick:";
+	private static final String RIGHT_INPUT_REQUEST = "Enter the index of the rightmost stick:";
+
+	private final IntInput input;
+	private MessageOutput output = AsyncConsoleOutput.getInstance(); //Used for the prompts.
+
+	/**
+	 * @param input The source of the integers the user enters.
+	 */
+	public HumanStrategy(IntInput input){
+		this.input = input;
+	}
+
+	/**
+	 * Sets the destination of the prompts, which is the console by default.
+	 * @param output the destination of the prompts.
+	 */
+	@Override
+	public void setOutput(MessageOutput output){
+		this.output = output;
+	}
+
+	/**
+	 * Interact with the user to produce his move, packed by Move.pack(). A human may enter numbers which do not fit
+	 * in a packed move, and those are packed to a move out of the bounds of the board.
+	 */
+	@Override
+	public int produceMove(Board board, long deadline){
+		return produceUnpackedMove(board).toPacked();
+	}
+
+	/**
+	 * Interact with the user to produce his move.
+	 */
+	@Override
+	public Move produceUnpackedMove(Board board){
+		//printing the first message-
+		output.println(INPUT_REQUEST_MSG);
+		int userInput = readInt();
+		//initializing a while loop, making sure the human player gives the right input
+		while (userInput != 2){
+			//printing the board if the human player asked for it
+			if (userInput == 1){
+				output.println(board.toString());
+				output.println(INPUT_REQUEST_MSG);
+			// if input is not 1 or 2, it is wrong input, and an error message will be printed-
+			} else {
+				output.println(UNSUPPORTED_COMMAND);
+				output.println(INPUT_REQUEST_MSG);
+			}
+			userInput = readInt();
+		}
+		//initializing inputs from the human user-
+		//printing the relevant messages with the right order, waiting for input-
+		output.println(ROW_INPUT_REQUEST);
+		int rowInput = readInt();
+		output.println(LEFT_INPUT_REQUEST);
+		int leftInput = readInt();
+		output.println(RIGHT_INPUT_REQUEST);
+		int rightInput = readInt();
+		//returning the move given by the human user
+		return new Move(rowInput, leftInput, rightInput);
+		}
+	
+	/**
+	 * an aid method for the produceUnpackedMove method. it makes sure the human player sees every message written so
+	 * far, and then reads the next integer he enters.
+	 * @return the integer entered by the human player
+	 */
+	private int readInt(){
+		output.flush();
+		return input.nextInt();
+	}
+}
@@ -0,0 +1,17 @@
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * The IntInput interface represents a source of the integers a human player enters, such as the console or a script
+ * of moves. It reads like Scanner.nextInt().
+ */
+public interface IntInput {
+
+	/**
+	 * Reads the next integer, skipping the whitespace before it.
+	 * @return the integer.
+	 * @throws InputMismatchException if the next token is not an integer in the range of an int.
+	 * @throws NoSuchElementException if the input is exhausted.
+	 */
+	int nextInt();
+}
@@ -0,0 +1,17 @@
+/**
+ * The MessageOutput interface represents the destination of the messages of the game, such as the messages of a
+ * Competition and the prompts shown to a human player. Messages may be held back until the output is flushed.
+ */
+public interface MessageOutput {
+
+	/**
+	 * Writes the given message, followed by a line separator.
+	 * @param message the message to write.
+	 */
+	void println(String message);
+
+	/**
+	 * Writes out every message given so far, returning only once they were written.
+	 */
+	void flush();
+}
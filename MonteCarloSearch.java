@@ -0,0 +1,264 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The MonteCarloSearch class chooses moves by Monte Carlo tree search: a search tree is grown from the current board
+ * one playout at a time, choosing the moves to explore by the UCT rule, finishing every round with random moves
+ * and crediting the result to the moves on the way. The search only uses the moves of the board and not its
+ * solved outcomes, so it works on boards of any geometry, including ones too large to solve.
+ * <p>
+ * The search is run in parallel by root parallelism: every thread grows a tree of its own from the same board,
+ * with its own share of the playouts, and the visits of the moves at the roots of all the trees are added up. The
+ * move with the most visits is played. The threads beyond the calling one are taken from the ThreadBudget for every
+ * search, so a search made while the rounds are played in parallel runs on fewer threads, down to the calling one
+ * alone, and the same seed may then lead to a different move. A search stops when its playouts are done or when its
+ * time is up, whichever happens first.
+ */
+public class MonteCarloSearch implements Strategy {
+
+	/** The system properties holding the budget of a move and the number of threads, read by fromSystemProperties. */
+	private static final String PLAYOUTS_PROPERTY = "nim.mcts.playouts";
+	private static final String MILLIS_PROPERTY = "nim.mcts.millis";
+	private static final String THREADS_PROPERTY = "nim.mcts.threads";
+	private static final int DEFAULT_PLAYOUTS = 20000;
+	/** The exploration constant of the UCT rule. */
+	private static final double EXPLORATION = Math.sqrt(2);
+	/** The clock is read once every this number of playouts, to check whether the time of the search is up. */
+	private static final int CLOCK_CHECK_INTERVAL = 64;
+	private static final long NANOS_PER_MILLI = 1000000L;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final String THREAD_NAME = "monte-carlo-search";
+
+	/** The threads of all the searches, shared so that the searches of several players do not multiply them. */
+	private static final ExecutorService pool = Executors.newCachedThreadPool(task -> {
+		Thread thread = new Thread(task, THREAD_NAME);
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** The totals of all the searches, used to report the playout throughput. */
+	private static final LongAdder totalSearches = new LongAdder();
+	private static final LongAdder totalPlayouts = new LongAdder();
+	private static final LongAdder totalNanos = new LongAdder();
+
+	private final int playoutBudget;
+	private final long timeBudgetNanos; //0 if the search is not limited in time.
+	private final int numOfThreads;
+	private final Random random = new Random(); //the seeds of the threads are drawn from it.
+
+	/**
+	 * A node of the search tree, standing for the position reached by the moves from the root to it.
+	 */
+	private static final class Node {
+
+		private final int move; //the move leading to the node, packed by Move.pack().
+		private final int[] untriedMoves; //the moves of the position which have no child yet.
+		private int numOfUntriedMoves;
+		private final Node[] children;
+		private int numOfChildren;
+		private int visits;
+		private double wins; //the playouts through the node won by the player who made its move.
+
+		private Node(int move, Board board){
+			this.move = move;
+			untriedMoves = new int[board.countLegalMoves()];
+			numOfUntriedMoves = board.generateMoves(untriedMoves);
+			children = new Node[numOfUntriedMoves];
+		}
+
+		/**
+		 * @return the child with the highest UCT value, balancing the rate of its wins and how rarely it was tried.
+		 */
+		private Node selectChild(){
+			Node best = null;
+			double bestValue = Double.NEGATIVE_INFINITY, logVisits = Math.log(visits);
+			for (int i = 0; i < numOfChildren; i++){
+				Node child = children[i];
+				double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+				if (value > bestValue){
+					bestValue = value;
+					best = child;
+				}
+			}
+			return best;
+		}
+	}
+
+	/**
+	 * Initializes a search with the given budget per move.
+	 * @param playoutBudget the number of playouts of a move, split between the threads.
+	 * @param timeBudgetMillis the time of a move in milliseconds, or 0 if the search is not limited in time.
+	 * @param numOfThreads the largest number of threads to search on, each growing its own tree.
+	 */
+	public MonteCarloSearch(int playoutBudget, long timeBudgetMillis, int numOfThreads){
+		if (playoutBudget < 1 || timeBudgetMillis < 0 || numOfThreads < 1){
+			throw new IllegalArgumentException("Invalid search budget");
+		}
+		this.playoutBudget = playoutBudget;
+		this.timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+		this.numOfThreads = numOfThreads;
+	}
+
+	/**
+	 * Returns a search with the budget given by the system properties nim.mcts.playouts (20000 playouts by default),
+	 * nim.mcts.millis (no time limit by default) and nim.mcts.threads (up to a thread per processor by default, as
+	 * many as the ThreadBudget has left).
+	 */
+	public static MonteCarloSearch fromSystemProperties(){
+		return new MonteCarloSearch(Integer.getInteger(PLAYOUTS_PROPERTY, DEFAULT_PLAYOUTS),
+				Long.getLong(MILLIS_PROPERTY, 0L),
+				Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Sets the seed the seeds of the threads are drawn from, so the search makes the same moves whenever it is not
+	 * limited in time.
+	 */
+	@Override
+	public void setSeed(long seed){
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Searches the given board for a move.
+	 * @param board the current board, which is not changed.
+	 * @param deadline the value of System.nanoTime() at which the search stops even if its own time is not up, or
+	 * Player.NO_DEADLINE.
+	 * @return the move to perform, packed by Move.pack(), or Move.NO_MOVE if the board has no unmarked stick.
+	 */
+	@Override
+	public int produceMove(Board board, long deadline){
+		int numOfMoves = board.countLegalMoves();
+		if (numOfMoves <= 1){
+			return numOfMoves == 0 ? Move.NO_MOVE : board.findSegmentMove(1);
+		}
+		long start = System.nanoTime();
+		long searchDeadline = timeBudgetNanos == 0 ? deadline : Math.min(deadline, start + timeBudgetNanos);
+		int[] rootMoves = new int[numOfMoves];
+		board.generateMoves(rootMoves);
+		long[] rootVisits = new long[numOfMoves];
+		int extraThreads = ThreadBudget.acquire(numOfThreads - 1), threads = 1 + extraThreads;
+		if (threads == 1){
+			addRootVisits(searchTree(board, playoutBudget, searchDeadline, random.nextLong()), rootMoves, rootVisits);
+		} else {
+			List<Callable<Node>> trees = new ArrayList<>(threads);
+			for (int thread = 0; thread < threads; thread++){
+				//the playouts are split as evenly as possible between the threads
+				int threadPlayouts = playoutBudget / threads + (thread < playoutBudget % threads ? 1 : 0);
+				long seed = random.nextLong();
+				trees.add(() -> searchTree(board, threadPlayouts, searchDeadline, seed));
+			}
+			try {
+				for (Future<Node> tree : pool.invokeAll(trees)){
+					addRootVisits(tree.get(), rootMoves, rootVisits);
+				}
+			} catch (InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while searching for a move", e);
+			} catch (ExecutionException e){
+				throw new IllegalStateException("The search for a move failed", e.getCause());
+			} finally {
+				ThreadBudget.release(extraThreads);
+			}
+		}
+		int best = 0;
+		for (int i = 1; i < numOfMoves; i++){
+			if (rootVisits[i] > rootVisits[best]){
+				best = i;
+			}
+		}
+		totalSearches.increment();
+		totalNanos.add(System.nanoTime() - start);
+		return rootMoves[best];
+	}
+
+	/**
+	 * Adds the visits of the children of the given root to the visits of the moves of the root.
+	 */
+	private static void addRootVisits(Node root, int[] rootMoves, long[] rootVisits){
+		for (int i = 0; i < root.numOfChildren; i++){
+			int index = 0;
+			while (rootMoves[index] != root.children[i].move){
+				index++;
+			}
+			rootVisits[index] += root.children[i].visits;
+		}
+	}
+
+	/**
+	 * Grows a search tree from the given board, by running playouts until the given number is done or the deadline
+	 * is passed.
+	 * @return the root of the tree.
+	 */
+	private static Node searchTree(Board rootBoard, int playouts, long deadline, long seed){
+		Random random = new Random(seed);
+		Node root = new Node(Move.NO_MOVE, rootBoard);
+		Node[] path = new Node[rootBoard.getNumberOfUnmarkedSticks() + 1];
+		int[] moveBuffer = new int[Board.MAX_NUM_OF_MOVES];
+		//every playout starts from a copy of the root board made into the same board, so no board is allocated
+		Board board = new Board(rootBoard);
+		int playout = 0;
+		while (playout < playouts && (playout % CLOCK_CHECK_INTERVAL != 0 || System.nanoTime() < deadline)){
+			board.copyFrom(rootBoard);
+			Node node = root;
+			int depth = 0;
+			path[depth] = node;
+			//selection: going down the tree while every move of the node has been tried
+			while (node.numOfUntriedMoves == 0 && node.numOfChildren > 0){
+				node = node.selectChild();
+				board.markStickSequence(node.move);
+				path[++depth] = node;
+			}
+			//expansion: adding a child for one untried move
+			if (node.numOfUntriedMoves > 0){
+				int index = random.nextInt(node.numOfUntriedMoves);
+				int move = node.untriedMoves[index];
+				node.untriedMoves[index] = node.untriedMoves[--node.numOfUntriedMoves];
+				board.markStickSequence(move);
+				Node child = new Node(move, board);
+				node.children[node.numOfChildren++] = child;
+				node = child;
+				path[++depth] = node;
+			}
+			//simulation: the player who made the move of the node is the mover of turn 0, and the player marking the
+			//last stick loses, so the mover of the node wins if the last stick is marked on an odd turn
+			int turn = 0;
+			while (board.getNumberOfUnmarkedSticks() > 0){
+				int numOfMoves = board.generateMoves(moveBuffer);
+				board.markStickSequence(moveBuffer[random.nextInt(numOfMoves)]);
+				turn++;
+			}
+			double result = turn % 2 == 1 ? 1 : 0;
+			//backpropagation: the movers of the nodes on the path alternate
+			for (int i = depth; i >= 0; i--){
+				path[i].visits++;
+				path[i].wins += result;
+				result = 1 - result;
+			}
+			playout++;
+		}
+		totalPlayouts.add(playout);
+		return root;
+	}
+
+	/**
+	 * @return a report of the number of playouts of all the searches and their throughput, or null if no search was
+	 * made.
+	 */
+	public static String getReport(){
+		long searches = totalSearches.sum();
+		if (searches == 0){
+			return null;
+		}
+		long playouts = totalPlayouts.sum();
+		return "Monte Carlo search: "+searches+" moves, "+playouts+" playouts, "+
+				Math.round(playouts * NANOS_PER_SECOND / Math.max(1, totalNanos.sum()))+" playouts per second";
+	}
+}
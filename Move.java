@@ -1,6 +1,9 @@
 /**
  * The Move class represents a move in the Nim game by a player. A move consists of the row on which it is applied, the
  * left bound (inclusive) of the sequence of sticks to mark, and the right bound (inclusive) of the same sequence.
+ * A move can also be packed into a single int, holding the row, the left bound and the right bound in its three low
+ * bytes. The packed form is used where moves are produced and played in bulk, so no object has to be allocated per
+ * move; a Move object is only a view of a packed move at the edge of the API.
  */
 
 public class Move {
@@ -12,6 +15,14 @@ public class Move {
     /** The row on which the move is performed. */
     private final int rightBound;
 
+    /** The packed form of "no move", which is also the packed form of the move 0:0-0. */
+    public static final int NO_MOVE = 0;
+    /** The number of bits of every field of a packed move, and the largest value such a field can hold. */
+    private static final int FIELD_BITS = 8;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    /** The packed form of a move whose fields do not fit in a packed move, which is always out of bounds. */
+    private static final int OUT_OF_BOUNDS_MOVE = FIELD_MASK;
+
     /**
      * Constructs a Move object with the given parameters
      * @param inRow The row on which the move is performed.
@@ -50,6 +61,71 @@ public class Move {
         return row;
     }
 
+    /**
+     * Packs the given move into a single int. A move with a field which does not fit in a packed move is outside
+     * the boundaries of any board, so it is packed into a move which is outside the boundaries as well.
+     * @param inRow The row on which the move is performed.
+     * @param inLeft The left bound of the sequence to mark.
+     * @param inRight The right bound of the sequence to mark.
+     * @return the packed move.
+     */
+    public static int pack(int inRow,
+                           int inLeft,
+                           int inRight){
+        if (((inRow | inLeft | inRight) & ~FIELD_MASK) != 0){
+            return OUT_OF_BOUNDS_MOVE;
+        }
+        return (inRow << (2 * FIELD_BITS)) | (inLeft << FIELD_BITS) | inRight;
+    }
+
+    /**
+     *
+     * @return The row of the given packed move.
+     */
+    public static int unpackRow(int packedMove){
+        return (packedMove >>> (2 * FIELD_BITS)) & FIELD_MASK;
+    }
+
+    /**
+     *
+     * @return The left bound of the given packed move.
+     */
+    public static int unpackLeftBound(int packedMove){
+        return (packedMove >>> FIELD_BITS) & FIELD_MASK;
+    }
+
+    /**
+     *
+     * @return The right bound of the given packed move.
+     */
+    public static int unpackRightBound(int packedMove){
+        return packedMove & FIELD_MASK;
+    }
+
+    /**
+     *
+     * @return a Move object viewing the given packed move.
+     */
+    public static Move unpack(int packedMove){
+        return new Move(unpackRow(packedMove), unpackLeftBound(packedMove), unpackRightBound(packedMove));
+    }
+
+    /**
+     *
+     * @return this move in its packed form.
+     */
+    public int toPacked(){
+        return pack(row, leftBound, rightBound);
+    }
+
+    /**
+     *
+     * @return a string representation of the given packed move, in the same format as toString().
+     */
+    public static String toString(int packedMove){
+        return unpackRow(packedMove) +":"+unpackLeftBound(packedMove)+"-"+unpackRightBound(packedMove);
+    }
+
     /**
      *
      * @return a string representation of the move. For example, if the row is 2, the left bound of the sequence is 3
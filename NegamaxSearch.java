@@ -0,0 +1,272 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The NegamaxSearch class chooses moves by a negamax search with alpha-beta pruning under the misere rule of the
+ * competition: the player who marks the last stick loses. The search only uses the moves of the board and not its
+ * solved outcomes, so it works on boards of any geometry, including ones too large to solve.
+ * <p>
+ * A position is scored from the side of the player to move: WIN and LOSS when the search proved the outcome, and
+ * UNKNOWN when the search reached its depth before the end of the round. The search deepens one move at a time,
+ * until the outcome of the board is proved, the whole round fits in the depth or the time of the move is up. The
+ * results of the positions are kept in a transposition table of a fixed, power of two size, and the best move of a
+ * position found by a shallower search is tried first by the deeper ones, followed by the moves marking the most
+ * sticks.
+ * <p>
+ * The search plays and takes back its moves on a single board of its own, set to the position of the move, so it
+ * does not allocate a board for every position. The table and the buffers are allocated on the first search, or when
+ * the search is prepared, so a player which has not moved yet holds almost no memory. A search is not thread-safe,
+ * as it keeps its table, its board and its buffers between moves. Every player has a search of its own.
+ */
+public class NegamaxSearch implements Strategy {
+
+	/** The system properties holding the time of a move and the size of the table, read by fromSystemProperties. */
+	private static final String MILLIS_PROPERTY = "nim.negamax.millis";
+	private static final String TABLE_BITS_PROPERTY = "nim.negamax.tableBits";
+	private static final long DEFAULT_MILLIS = 100;
+	private static final int DEFAULT_TABLE_BITS = 20;
+	private static final int MAX_TABLE_BITS = 30;
+
+	/** The scores of a position, from the side of the player to move. */
+	private static final int WIN = 1;
+	private static final int LOSS = -1;
+	private static final int UNKNOWN = 0;
+
+	/** The kinds of scores in the table: the exact score, or a bound of it found by a pruned search. */
+	private static final int EXACT = 0;
+	private static final int LOWER_BOUND = 1;
+	private static final int UPPER_BOUND = 2;
+	/** The depth stored with a proved outcome, which holds for a search of any depth. */
+	private static final int PROVED_DEPTH = 0xff;
+	/** The layout of an entry of the table: the best move in the low 32 bits, then the depth, kind and score. */
+	private static final int DEPTH_SHIFT = 32;
+	private static final int KIND_SHIFT = 40;
+	private static final int SCORE_SHIFT = 48;
+	private static final int BYTE_MASK = 0xff;
+	private static final long MOVE_MASK = 0xffffffffL;
+
+	/** The clock is read once every this number of nodes, to check whether the time of the search is up. */
+	private static final int CLOCK_CHECK_MASK = (1 << 10) - 1;
+	private static final long NANOS_PER_MILLI = 1000000L;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final int PERCENT = 100;
+
+	/** The totals of all the searches, used to report the node throughput and the table hit rate. */
+	private static final LongAdder totalSearches = new LongAdder();
+	private static final LongAdder totalNodes = new LongAdder();
+	private static final LongAdder totalProbes = new LongAdder();
+	private static final LongAdder totalHits = new LongAdder();
+	private static final LongAdder totalNanos = new LongAdder();
+
+	private final long timeBudgetNanos;
+	private final int tableBits;
+	//the table and the buffers, null until the first search.
+	private long[] tableKeys; //the key of the position of every entry.
+	private long[] tableEntries; //0 for an empty entry, as no entry is stored with a depth of 0.
+	private int[][] moveBuffers; //the moves of the position at every ply of the search.
+	private final Board searchBoard = new Board(); //the board the moves of the search are played on.
+	private long deadline;
+	private boolean timeIsUp;
+	private long nodes;
+	private long probes;
+	private long hits;
+	private int rootBestMove;
+
+	/**
+	 * Initializes a search with the given time per move and a table of the given size.
+	 * @param timeBudgetMillis the time of a move in milliseconds.
+	 * @param tableBits the base 2 logarithm of the number of entries of the table, every entry taking 16 bytes.
+	 */
+	public NegamaxSearch(long timeBudgetMillis, int tableBits){
+		if (timeBudgetMillis < 1 || tableBits < 1 || tableBits > MAX_TABLE_BITS){
+			throw new IllegalArgumentException("Invalid search budget");
+		}
+		this.timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+		this.tableBits = tableBits;
+	}
+
+	/**
+	 * Returns a search with the time per move given by the system property nim.negamax.millis (100 milliseconds by
+	 * default) and the table size given by nim.negamax.tableBits (2^20 entries by default).
+	 */
+	public static NegamaxSearch fromSystemProperties(){
+		return fromSystemProperties(Integer.getInteger(TABLE_BITS_PROPERTY, DEFAULT_TABLE_BITS));
+	}
+
+	/**
+	 * Returns a search with the time per move given by the system property nim.negamax.millis (100 milliseconds by
+	 * default) and a table of the given size.
+	 * @param tableBits the base 2 logarithm of the number of entries of the table, every entry taking 16 bytes.
+	 */
+	public static NegamaxSearch fromSystemProperties(int tableBits){
+		return new NegamaxSearch(Long.getLong(MILLIS_PROPERTY, DEFAULT_MILLIS), tableBits);
+	}
+
+	/**
+	 * Allocates the table and the buffers of the search, if they were not allocated yet.
+	 */
+	@Override
+	public void prepare(){
+		if (tableKeys == null){
+			tableKeys = new long[1 << tableBits];
+			tableEntries = new long[1 << tableBits];
+			moveBuffers = new int[new Board().getNumberOfUnmarkedSticks() + 1][Board.MAX_NUM_OF_MOVES];
+		}
+	}
+
+	/**
+	 * Searches the given board for a move, deepening the search until the outcome of the board is proved or the
+	 * time of the move is up.
+	 * @param board the current board, which is not changed.
+	 * @param deadline the value of System.nanoTime() at which the search stops even if its own time is not up, or
+	 * Player.NO_DEADLINE.
+	 * @return the move to perform, packed by Move.pack(), or Move.NO_MOVE if the board has no unmarked stick.
+	 */
+	@Override
+	public int produceMove(Board board, long deadline){
+		if (board.getNumberOfUnmarkedSticks() == 0){
+			return Move.NO_MOVE;
+		}
+		prepare();
+		long start = System.nanoTime();
+		this.deadline = Math.min(deadline, start + timeBudgetNanos);
+		timeIsUp = false;
+		nodes = 0;
+		probes = 0;
+		hits = 0;
+		//until a search of some depth is done, the move marking the first segment is as good as any other
+		int bestMove = board.findSegmentMove(1);
+		searchBoard.copyFrom(board);
+		for (int depth = 1; depth <= board.getNumberOfUnmarkedSticks(); depth++){
+			int score = negamax(searchBoard, depth, LOSS, WIN, 0);
+			if (timeIsUp){
+				break;
+			}
+			bestMove = rootBestMove;
+			if (score != UNKNOWN){
+				break;
+			}
+		}
+		totalSearches.increment();
+		totalNodes.add(nodes);
+		totalProbes.add(probes);
+		totalHits.add(hits);
+		totalNanos.add(System.nanoTime() - start);
+		return bestMove;
+	}
+
+	/**
+	 * Scores the given board from the side of the player to move, searching the given number of moves ahead.
+	 * @param board the board, on which the moves of the search are played and taken back, so it is left unchanged.
+	 * @param depth the number of moves to search ahead.
+	 * @param alpha the score the player to move is already sure of.
+	 * @param beta the score the opponent is already sure of, from the side of the player to move.
+	 * @param ply the number of moves from the board of the search to the given board.
+	 * @return the score, or UNKNOWN if the time is up, in which case timeIsUp is set.
+	 */
+	private int negamax(Board board, int depth, int alpha, int beta, int ply){
+		//the opponent has just marked the last stick, so the player to move won
+		if (board.getNumberOfUnmarkedSticks() == 0){
+			return WIN;
+		}
+		nodes++;
+		if ((nodes & CLOCK_CHECK_MASK) == 0 && System.nanoTime() > deadline){
+			timeIsUp = true;
+		}
+		if (timeIsUp){
+			return UNKNOWN;
+		}
+		//the key is the Zobrist hash of the board, which may be 0 like the key of an empty entry
+		long key = board.getZobristHash();
+		int index = (int) (key >>> (Long.SIZE - tableBits));
+		int tableMove = Move.NO_MOVE;
+		probes++;
+		if (tableKeys[index] == key && tableEntries[index] != 0){
+			hits++;
+			long entry = tableEntries[index];
+			tableMove = (int) (entry & MOVE_MASK);
+			if (((entry >>> DEPTH_SHIFT) & BYTE_MASK) >= depth){
+				int kind = (int) ((entry >>> KIND_SHIFT) & BYTE_MASK);
+				int score = (int) (entry >> SCORE_SHIFT);
+				if (kind == EXACT || (kind == LOWER_BOUND && score >= beta) || (kind == UPPER_BOUND && score <= alpha)){
+					if (ply == 0){
+						rootBestMove = tableMove;
+					}
+					return score;
+				}
+			}
+		}
+		if (depth == 0){
+			return UNKNOWN;
+		}
+		int[] moves = moveBuffers[ply];
+		int numOfMoves = board.generateMoves(moves);
+		orderMoves(moves, numOfMoves, tableMove);
+		int originalAlpha = alpha, bestScore = LOSS - 1, bestMove = moves[0];
+		for (int i = 0; i < numOfMoves; i++){
+			board.markStickSequence(moves[i]);
+			int score = -negamax(board, depth - 1, -beta, -alpha, ply + 1);
+			board.unmarkLastSequence();
+			if (timeIsUp){
+				return UNKNOWN;
+			}
+			if (score > bestScore){
+				bestScore = score;
+				bestMove = moves[i];
+			}
+			if (score > alpha){
+				alpha = score;
+				if (alpha >= beta){
+					break;
+				}
+			}
+		}
+		int kind = bestScore <= originalAlpha ? UPPER_BOUND : bestScore >= beta ? LOWER_BOUND : EXACT;
+		//a win which is not an upper bound and a loss which is not a lower bound are proved for any depth
+		boolean proved = (bestScore == WIN && kind != UPPER_BOUND) || (bestScore == LOSS && kind != LOWER_BOUND);
+		tableKeys[index] = key;
+		tableEntries[index] = ((long) bestScore << SCORE_SHIFT) | ((long) kind << KIND_SHIFT) |
+				((long) (proved ? PROVED_DEPTH : depth) << DEPTH_SHIFT) | (bestMove & MOVE_MASK);
+		if (ply == 0){
+			rootBestMove = bestMove;
+		}
+		return bestScore;
+	}
+
+	/**
+	 * Orders the given moves for the search: the given best move of the table first, followed by the rest of the
+	 * moves from the one marking the most sticks to the one marking the fewest.
+	 */
+	private static void orderMoves(int[] moves, int numOfMoves, int tableMove){
+		//an insertion sort, as there are few moves and they are generated in an order close to the wanted one
+		for (int i = 1; i < numOfMoves; i++){
+			int move = moves[i], priority = getPriority(move, tableMove), j = i - 1;
+			while (j >= 0 && getPriority(moves[j], tableMove) < priority){
+				moves[j + 1] = moves[j];
+				j--;
+			}
+			moves[j + 1] = move;
+		}
+	}
+
+	/**
+	 * @return the priority of a move in the order of the search, the move of the table having the highest.
+	 */
+	private static int getPriority(int move, int tableMove){
+		return move == tableMove ? Integer.MAX_VALUE : Move.unpackRightBound(move) - Move.unpackLeftBound(move);
+	}
+
+	/**
+	 * @return a report of the number of nodes of all the searches, their throughput and the rate of hits in the
+	 * table, or null if no search was made.
+	 */
+	public static String getReport(){
+		long searches = totalSearches.sum();
+		if (searches == 0){
+			return null;
+		}
+		long nodes = totalNodes.sum(), probes = totalProbes.sum();
+		return "Negamax search: "+searches+" moves, "+nodes+" nodes, "+
+				Math.round(nodes * NANOS_PER_SECOND / Math.max(1, totalNanos.sum()))+" nodes per second, "+
+				(probes == 0 ? 0 : totalHits.sum() * PERCENT / probes)+"% table hits";
+	}
+}
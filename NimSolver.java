@@ -0,0 +1,146 @@
+import java.io.IOException;
+
+/**
+ * The NimSolver class holds the solved outcome of every position of the Nim game board, under the misere rule of
+ * the competition: the player who marks the last stick loses. A position is a bitboard as returned by
+ * Board.getBitboard(), and its outcome is stored as a single bit, set when the player about to move wins with
+ * perfect play. The table is computed the first time it is requested, unless a tablebase file written by
+ * NimTablebase is found, in which case the outcomes are read from the file instead.
+ */
+public class NimSolver implements OutcomeTable {
+
+	/** The number of sticks on a clear board, which is also the number of bits of a position. */
+	static final int NUM_OF_STICKS = new Board().getNumberOfUnmarkedSticks();
+	/** The number of positions of the board, one for every subset of the sticks. */
+	static final int NUM_OF_POSITIONS = 1 << NUM_OF_STICKS;
+	/** Used to turn a position into an index of a word in the table and a bit in that word. */
+	private static final int WORD_SHIFT = 6;
+	private static final int BIT_INDEX_MASK = 63;
+
+	/** The row (counting from 1) and the mask of the row of every bit of a position. */
+	private static final int[] ROW_OF_BIT = new int[NUM_OF_STICKS];
+	private static final int[] ROW_MASK_OF_BIT = new int[NUM_OF_STICKS];
+
+	static {
+		Board board = new Board();
+		for (int row = 1; row < board.getNumberOfRows()+1; row++){
+			for (int stick = 1; stick < board.getRowLength(row)+1; stick++){
+				ROW_OF_BIT[Board.getStickBit(row, stick)] = row;
+				ROW_MASK_OF_BIT[Board.getStickBit(row, stick)] = Board.getRowMask(row);
+			}
+		}
+	}
+
+	private static volatile OutcomeTable table;
+
+	private final long[] outcomes; //one bit per position, set if the player to move wins.
+
+	/**
+	 * Solves all the positions of the board, from the empty board up to the clear board. Every move marks at least
+	 * one stick, so every position a move leads to is smaller than the position it was made on, and is already
+	 * solved when the position itself is reached.
+	 */
+	NimSolver(){
+		outcomes = new long[(NUM_OF_POSITIONS >>> WORD_SHIFT) + 1];
+		//on an empty board the opponent has just marked the last stick, so the player to move won.
+		setWinning(0);
+		for (int position = 1; position < NUM_OF_POSITIONS; position++){
+			if (findWinningSequence(this, position) != 0){
+				setWinning(position);
+			}
+		}
+	}
+
+	/**
+	 * Returns the outcomes of all the positions of the board. On the first call, the tablebase file is opened if it
+	 * exists and fits the board, and otherwise all the positions are solved.
+	 */
+	public static OutcomeTable getTable(){
+		OutcomeTable result = table;
+		if (result == null){
+			synchronized (NimSolver.class){
+				result = table;
+				if (result == null){
+					try {
+						result = NimTablebase.open(NimTablebase.getDefaultPath());
+					} catch (IOException e){
+						//a missing or mismatching file is not an error, the outcomes are simply computed instead.
+						result = new NimSolver();
+					}
+					table = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean isWinning(int position){
+		return ((outcomes[position >>> WORD_SHIFT] >>> (position & BIT_INDEX_MASK)) & 1) == 1;
+	}
+
+	/**
+	 * Produces the move of a perfect player on the given board. In a winning position the move leads to a losing
+	 * position of the opponent. In a losing position every move loses, so a single stick is marked, leaving the
+	 * opponent as many chances as possible to make a mistake.
+	 * @param board the current board, which must have at least one unmarked stick.
+	 * @return the move to perform, packed by Move.pack().
+	 */
+	public static int produceMove(Board board){
+		int position = board.getBitboard();
+		int sequence = findWinningSequence(getTable(), position);
+		if (sequence == 0){
+			sequence = Integer.lowestOneBit(position);
+		}
+		return sequenceToMove(sequence);
+	}
+
+	/**
+	 * Looks for a move from the given position to a position which is losing for the player to move.
+	 * @param outcomes the outcomes of all the positions smaller than the given one.
+	 * @param position a bitboard with at least one unmarked stick.
+	 * @return the mask of the sticks marked by such a move, or 0 if there is none.
+	 */
+	private static int findWinningSequence(OutcomeTable outcomes, int position){
+		int remaining = position;
+		//every sequence starts at some unmarked stick and extends to the right within its row.
+		while (remaining != 0){
+			int first = Integer.lowestOneBit(remaining);
+			int rowMask = ROW_MASK_OF_BIT[Integer.numberOfTrailingZeros(first)];
+			int sequence = first, last = first;
+			while (true){
+				if (!outcomes.isWinning(position & ~sequence)){
+					return sequence;
+				}
+				last <<= 1;
+				if ((position & rowMask & last) == 0){
+					break;
+				}
+				sequence |= last;
+			}
+			remaining &= ~first;
+		}
+		return 0;
+	}
+
+	/**
+	 * Converts a mask of a sequence of sticks within a single row to the packed move marking it.
+	 */
+	private static int sequenceToMove(int sequence){
+		int firstBit = Integer.numberOfTrailingZeros(sequence);
+		int row = ROW_OF_BIT[firstBit];
+		int leftBound = firstBit - Board.getStickBit(row, 1) + 1;
+		return Move.pack(row, leftBound, leftBound + Integer.bitCount(sequence) - 1);
+	}
+
+	/**
+	 * @return the outcomes as a bit per position, the outcome of position p being bit (p % 64) of word (p / 64).
+	 */
+	long[] getOutcomes(){
+		return outcomes;
+	}
+
+	private void setWinning(int position){
+		outcomes[position >>> WORD_SHIFT] |= 1L << (position & BIT_INDEX_MASK);
+	}
+}
@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * The NimTablebase class reads the solved outcomes of the board's positions from a tablebase file, so they do not
+ * have to be recomputed every time a JVM starts. The file is memory-mapped, so only the pages holding the probed
+ * positions are ever read, and JVMs running on the same machine share these pages through the page cache.
+ * <p>
+ * The file consists of a header followed by the outcomes, all in little-endian byte order:
+ * <ul>
+ *     <li>The magic number "NIMT" (4 bytes).</li>
+ *     <li>The version of the format (4 bytes).</li>
+ *     <li>The geometry hash of the board, as returned by Board.getGeometryHash() (8 bytes).</li>
+ *     <li>The number of sticks on the board, which is the number of bits of a position (4 bytes).</li>
+ *     <li>One bit per position, set if the player to move wins. The outcome of position p is bit (p % 8) of
+ *     byte (p / 8).</li>
+ * </ul>
+ * Running this class generates the tablebase file of the board, at the path given as its single argument or at
+ * the default path, which is taken from the "nim.tablebase" system property and is "nim.tablebase" if it is unset.
+ */
+public class NimTablebase implements OutcomeTable {
+
+	/** The magic number at the beginning of every tablebase file, "NIMT" read as a little-endian int. */
+	private static final int MAGIC = 0x544d494e;
+	/** The current version of the file format. */
+	private static final int VERSION = 1;
+	/** The size of the header in bytes, which is the offset of the outcomes in the file. */
+	private static final int HEADER_SIZE = 20;
+	/** Used to turn a position into an index of a byte in the outcomes and a bit in that byte. */
+	private static final int BYTE_SHIFT = 3;
+	private static final int BIT_INDEX_MASK = 7;
+	/** The system property holding the path of the tablebase file, and the path used when it is not set. */
+	private static final String PATH_PROPERTY = "nim.tablebase";
+	private static final String DEFAULT_PATH = "nim.tablebase";
+	/** The permissions a written tablebase is given. */
+	private static final String FILE_PERMISSIONS = "rw-r--r--";
+	private static final String USAGE_MSG = "Usage: java NimTablebase [tablebase file]";
+
+	private final MappedByteBuffer outcomes; //the whole file, mapped read-only.
+
+	private NimTablebase(MappedByteBuffer mappedFile){
+		outcomes = mappedFile;
+	}
+
+	/**
+	 * Opens the tablebase file at the given path and maps it into memory. No outcome is read before it is probed.
+	 * @param path the path of the tablebase file.
+	 * @return the outcomes stored in the file.
+	 * @throws IOException if the file cannot be read, or if it is not a tablebase of the current board.
+	 */
+	public static NimTablebase open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+			long expectedSize = HEADER_SIZE + getOutcomesSize();
+			if (channel.size() != expectedSize){
+				throw new IOException("Tablebase file " + path + " has a wrong size");
+			}
+			//a mapping stays valid after its channel is closed.
+			MappedByteBuffer mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+			mappedFile.order(ByteOrder.LITTLE_ENDIAN);
+			if (mappedFile.getInt(0) != MAGIC || mappedFile.getInt(4) != VERSION ||
+					mappedFile.getLong(8) != Board.getGeometryHash() ||
+					mappedFile.getInt(16) != NimSolver.NUM_OF_STICKS){
+				throw new IOException("Tablebase file " + path + " does not match the current board");
+			}
+			return new NimTablebase(mappedFile);
+		}
+	}
+
+	/**
+	 * Writes the outcomes computed by the given solver to a tablebase file at the given path. The file is first
+	 * written under a temporary name and then moved into place, so a JVM opening the file concurrently never sees a
+	 * partially written tablebase. The temporary file is created readable by its owner only, so it is given the
+	 * permissions rw-r--r-- before the move, so other users of the machine can share the tablebase.
+	 * @param path the path of the tablebase file.
+	 * @param solver a solver of the current board.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void write(Path path, NimSolver solver) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putLong(Board.getGeometryHash()).putInt(NimSolver.NUM_OF_STICKS);
+		header.flip();
+		long[] words = solver.getOutcomes();
+		ByteBuffer body = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		LongBuffer bodyWords = body.asLongBuffer();
+		bodyWords.put(words);
+		body.limit((int) getOutcomesSize());
+
+		Path absolutePath = path.toAbsolutePath();
+		Path temporaryPath = Files.createTempFile(absolutePath.getParent(), absolutePath.getFileName().toString(),
+				".tmp");
+		try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)){
+			while (header.hasRemaining()){
+				channel.write(header);
+			}
+			while (body.hasRemaining()){
+				channel.write(body);
+			}
+			channel.force(false);
+			if (Files.getFileAttributeView(temporaryPath, PosixFileAttributeView.class) != null){
+				Files.setPosixFilePermissions(temporaryPath, PosixFilePermissions.fromString(FILE_PERMISSIONS));
+			}
+		} catch (IOException e){
+			Files.deleteIfExists(temporaryPath);
+			throw e;
+		}
+		Files.move(temporaryPath, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public boolean isWinning(int position){
+		return ((outcomes.get(HEADER_SIZE + (position >>> BYTE_SHIFT)) >>> (position & BIT_INDEX_MASK)) & 1) == 1;
+	}
+
+	/**
+	 * @return the path of the tablebase file used when no other path is given.
+	 */
+	static Path getDefaultPath(){
+		return Paths.get(System.getProperty(PATH_PROPERTY, DEFAULT_PATH));
+	}
+
+	/**
+	 * @return the number of bytes holding the outcomes, one bit per position.
+	 */
+	private static long getOutcomesSize(){
+		return (NimSolver.NUM_OF_POSITIONS + BIT_INDEX_MASK) >>> BYTE_SHIFT;
+	}
+
+	/**
+	 * Generates the tablebase file of the current board.
+	 * @param args an optional path of the tablebase file to generate.
+	 */
+	public static void main(String[] args){
+		if (args.length > 1){
+			System.out.println(USAGE_MSG);
+			return;
+		}
+		Path path = args.length == 1 ? Paths.get(args[0]) : getDefaultPath();
+		try {
+			write(path, new NimSolver());
+			System.out.println("Wrote the tablebase of the board to " + path);
+		} catch (IOException e){
+			System.out.println("Could not write the tablebase file: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,12 @@
+/**
+ * The OutcomeTable interface represents the solved outcomes of the positions of the Nim game board. A position is a
+ * bitboard as returned by Board.getBitboard().
+ */
+public interface OutcomeTable {
+
+	/**
+	 * @param position a bitboard as returned by Board.getBitboard().
+	 * @return true if the player about to move in the given position wins with perfect play.
+	 */
+	boolean isWinning(int position);
+}
@@ -0,0 +1,116 @@
+import java.util.Random;
+
+/**
+ * The RandomStrategy class is the strategy of the Random player, choosing a random legal move. Every choice is made
+ * by counting the options and drawing the index of one of them, in one of two ways: a row with unmarked sticks,
+ * then an unmarked stick in it and then a move starting at that stick, each uniformly, which is the default; or
+ * uniformly among all the legal moves on the board.
+ */
+public class RandomStrategy implements Strategy {
+
+	private final Random randomGenerator = new Random(); //created once per player, and reused by every move.
+	private int samplingMode = Player.SAMPLE_ROW_THEN_MOVE;
+
+	@Override
+	public void setSeed(long seed){
+		randomGenerator.setSeed(seed);
+	}
+
+	/**
+	 * Sets the way the move is chosen, either Player.SAMPLE_ROW_THEN_MOVE or Player.SAMPLE_UNIFORM_MOVE.
+	 * @param mode the sampling mode.
+	 * @throws IllegalArgumentException if the mode is neither of the two.
+	 */
+	@Override
+	public void setSamplingMode(int mode){
+		if (mode != Player.SAMPLE_ROW_THEN_MOVE && mode != Player.SAMPLE_UNIFORM_MOVE){
+			throw new IllegalArgumentException("Unknown sampling mode: "+mode);
+		}
+		samplingMode = mode;
+	}
+
+	/**
+	 * @return the way the move is chosen.
+	 */
+	@Override
+	public int getSamplingMode(){
+		return samplingMode;
+	}
+
+	/**
+	 * Produces a random move. Every choice is made by counting the options and drawing the index of one of them, so
+	 * the number of steps is bounded by the size of the board, however few sticks are left unmarked.
+	 */
+	@Override
+	public int produceMove(Board board, long deadline) {
+		if (samplingMode == Player.SAMPLE_UNIFORM_MOVE){
+			return produceUniformRandomMove(board);
+		}
+		//counting the relevant rows- the rows with at least one unmarked stick
+		int relevantRowsCount = 0;
+		for (int i = 1; i < board.getNumberOfRows() + 1; i++) {
+			if (board.getNumberOfUnmarkedSticksInRow(i) > 0) {
+				relevantRowsCount++;
+			}
+		}
+		if (relevantRowsCount == 0){
+			return Move.NO_MOVE;
+		}
+		//randomly choosing a relevant row, by skipping over the relevant rows before it-
+		int rowIndex = randomGenerator.nextInt(relevantRowsCount);
+		int selectedRow = 0;
+		while (rowIndex >= 0) {
+			selectedRow++;
+			if (board.getNumberOfUnmarkedSticksInRow(selectedRow) > 0) {
+				rowIndex--;
+			}
+		}
+		//randomly choosing an unmarked stick of the row, by skipping over the segments before the one holding it-
+		int stickIndex = randomGenerator.nextInt(board.getNumberOfUnmarkedSticksInRow(selectedRow));
+		int segment = 1;
+		while (stickIndex >= board.getSegmentLength(selectedRow, segment)){
+			stickIndex -= board.getSegmentLength(selectedRow, segment);
+			segment++;
+		}
+		int randomLeftBound = board.getSegmentStart(selectedRow, segment) + stickIndex;
+		//the unmarked right-neighbours of the chosen stick are the rest of the segment holding it, and one of them
+		//or the stick itself is randomly chosen as the right bound
+		int unmarkedNeighbours = board.getSegmentLength(selectedRow, segment) - 1 - stickIndex;
+		int randomRightBound = randomLeftBound + randomGenerator.nextInt(unmarkedNeighbours + 1);
+		return Move.pack(selectedRow, randomLeftBound, randomRightBound);
+	}
+
+	/**
+	 * Produces a random move, chosen uniformly among all the legal moves on the board. Like the default sampling, the
+	 * legal moves are counted and the index of one of them is drawn, the moves being ordered like the moves of
+	 * Board.generateMoves(), so no move has to be generated but the chosen one.
+	 */
+	private int produceUniformRandomMove(Board board){
+		int numOfMoves = board.countLegalMoves();
+		if (numOfMoves == 0){
+			return Move.NO_MOVE;
+		}
+		int moveIndex = randomGenerator.nextInt(numOfMoves);
+		//skipping over the segments before the one holding the move- a segment of n sticks has n*(n+1)/2 moves
+		for (int row = 1; row < board.getNumberOfRows() + 1; row++){
+			for (int segment = 1; segment < board.getNumberOfSegments(row) + 1; segment++){
+				int length = board.getSegmentLength(row, segment);
+				int segmentMoves = length * (length + 1) / 2;
+				if (moveIndex >= segmentMoves){
+					moveIndex -= segmentMoves;
+					continue;
+				}
+				//skipping over the left bounds before the one of the move- a left bound i sticks into the segment
+				//starts length-i moves
+				int leftOffset = 0;
+				while (moveIndex >= length - leftOffset){
+					moveIndex -= length - leftOffset;
+					leftOffset++;
+				}
+				int leftBound = board.getSegmentStart(row, segment) + leftOffset;
+				return Move.pack(row, leftBound, leftBound + moveIndex);
+			}
+		}
+		return Move.NO_MOVE;
+	}
+}
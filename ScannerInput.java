@@ -0,0 +1,21 @@
+import java.util.Scanner;
+
+/**
+ * The ScannerInput class reads the integers of a human player through a Scanner.
+ */
+public class ScannerInput implements IntInput {
+
+	private final Scanner scanner;
+
+	/**
+	 * @param scanner the Scanner to read the integers through.
+	 */
+	public ScannerInput(Scanner scanner){
+		this.scanner = scanner;
+	}
+
+	@Override
+	public int nextInt(){
+		return scanner.nextInt();
+	}
+}
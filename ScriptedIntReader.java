@@ -0,0 +1,139 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * The ScriptedIntReader class reads integers written in ASCII digits and separated by whitespace, byte by byte, from
+ * a stream through a buffer of its own or from a memory-mapped file. It is meant for scripts of the inputs of human
+ * players, which it reads far faster than a Scanner, as it does not match regular expressions nor decode characters.
+ * <p>
+ * An integer is an optional sign followed by decimal digits, and every byte up to the space character is whitespace.
+ * Like Scanner.nextInt(), a token which is not an integer in the range of an int throws an InputMismatchException,
+ * and the end of the input throws a NoSuchElementException. Unlike a Scanner, the reader skips the token which did
+ * not match, so the next call reads the token after it.
+ */
+public class ScriptedIntReader implements IntInput, Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 13;
+	private static final int END_OF_INPUT = -1;
+	private static final int RADIX = 10;
+
+	private final InputStream stream; //null when a file is mapped.
+	private final byte[] buffer;
+	private int position;
+	private int limit;
+	private final MappedByteBuffer mapped; //null when a stream is read.
+	private final FileChannel channel; //the channel of the mapped file, null when a stream is read.
+
+	/**
+	 * Initializes a reader of the given stream. The stream is read in large blocks, so it must not be read by anyone
+	 * else while it is read by the reader.
+	 * @param stream the stream to read.
+	 */
+	public ScriptedIntReader(InputStream stream){
+		this.stream = stream;
+		buffer = new byte[BUFFER_SIZE];
+		mapped = null;
+		channel = null;
+	}
+
+	private ScriptedIntReader(FileChannel channel) throws IOException {
+		this.channel = channel;
+		mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		stream = null;
+		buffer = null;
+	}
+
+	/**
+	 * Opens a reader of the given file, which is memory-mapped, so it must be smaller than 2GB.
+	 * @param path the path of the file.
+	 * @return the reader, which should be closed once it is done.
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	public static ScriptedIntReader open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return new ScriptedIntReader(channel);
+		} catch (IOException | RuntimeException e){
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public int nextInt(){
+		int current = read();
+		while (current != END_OF_INPUT && current <= ' '){
+			current = read();
+		}
+		if (current == END_OF_INPUT){
+			throw new NoSuchElementException();
+		}
+		boolean negative = current == '-';
+		if (current == '-' || current == '+'){
+			current = read();
+		}
+		long value = 0;
+		boolean hasDigits = false, matches = true;
+		//the token ends at the first whitespace, and is read to its end even if it does not match
+		while (current != END_OF_INPUT && current > ' '){
+			if (matches && current >= '0' && current <= '9'){
+				value = value * RADIX + (current - '0');
+				hasDigits = true;
+				if (value > (long) Integer.MAX_VALUE + 1){
+					matches = false;
+				}
+			} else {
+				matches = false;
+			}
+			current = read();
+		}
+		value = negative ? -value : value;
+		if (!matches || !hasDigits || value > Integer.MAX_VALUE){
+			throw new InputMismatchException();
+		}
+		return (int) value;
+	}
+
+	/**
+	 * @return the next byte of the input, or END_OF_INPUT if there is none.
+	 */
+	private int read(){
+		if (mapped != null){
+			return mapped.hasRemaining() ? mapped.get() & 0xff : END_OF_INPUT;
+		}
+		if (position == limit){
+			try {
+				//a stream may return only the bytes available so far, as a console does with every line.
+				limit = stream.read(buffer, 0, buffer.length);
+			} catch (IOException e){
+				throw new UncheckedIOException(e);
+			}
+			position = 0;
+			if (limit <= 0){
+				limit = 0;
+				return END_OF_INPUT;
+			}
+		}
+		return buffer[position++] & 0xff;
+	}
+
+	/**
+	 * Closes the stream or the file the reader reads.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null){
+			channel.close();
+		} else {
+			stream.close();
+		}
+	}
+}
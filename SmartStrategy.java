@@ -0,0 +1,24 @@
+/**
+ * The SmartStrategy class is the strategy of the Smart player, playing perfectly by the solved outcomes of all the
+ * positions of the board.
+ */
+public class SmartStrategy implements Strategy {
+
+	/**
+	 * Produces the move of a perfect player, using the solved outcomes of all the board's positions.
+	 * @param board- the game board
+	 * @return returns a valid smart move, packed by Move.pack()
+	 */
+	@Override
+	public int produceMove(Board board, long deadline){
+		return NimSolver.produceMove(board);
+	}
+
+	/**
+	 * Solves all the positions of the board, or opens the tablebase, if it was not done yet.
+	 */
+	@Override
+	public void prepare(){
+		NimSolver.getTable();
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * The Strategy interface represents the way a player chooses its moves. Every player has a strategy of its own,
+ * created by the StrategyRegistry for the type of the player, so a strategy may keep whatever state it reuses from
+ * one move to the next, such as buffers, random generators and search tables, without sharing it with other players.
+ */
+public interface Strategy {
+
+	/**
+	 * Produces the next move on the given board.
+	 * @param board the current board, which must not be changed.
+	 * @param deadline the value of System.nanoTime() by which the move should be produced, or Player.NO_DEADLINE.
+	 * @return the move, packed by Move.pack().
+	 */
+	int produceMove(Board board, long deadline);
+
+	/**
+	 * Produces the next move on the given board as a Move object. A strategy whose moves may not fit in a packed
+	 * move, such as the moves entered by a human, returns them as they are.
+	 * @param board the current board, which must not be changed.
+	 * @return the move.
+	 */
+	default Move produceUnpackedMove(Board board){
+		return Move.unpack(produceMove(board, Player.NO_DEADLINE));
+	}
+
+	/**
+	 * Sets the seed of the random choices of the strategy, so they can be reproduced. Strategies which make no
+	 * random choices ignore it.
+	 * @param seed the seed.
+	 */
+	default void setSeed(long seed){
+	}
+
+	/**
+	 * Gets the strategy ready to produce its moves, doing ahead of time the work its first move would otherwise do,
+	 * such as building its tables, so the first move is not slower than the rest when the moves are timed. Strategies
+	 * which have nothing to get ready ignore it.
+	 */
+	default void prepare(){
+	}
+
+	/**
+	 * Sets the way a random strategy chooses its move, either Player.SAMPLE_ROW_THEN_MOVE or
+	 * Player.SAMPLE_UNIFORM_MOVE. Strategies which do not choose their moves at random ignore it.
+	 * @param mode the sampling mode, which was already checked to be one of the two.
+	 */
+	default void setSamplingMode(int mode){
+	}
+
+	/**
+	 * @return the way a random strategy chooses its move, which is Player.SAMPLE_ROW_THEN_MOVE for other strategies.
+	 */
+	default int getSamplingMode(){
+		return Player.SAMPLE_ROW_THEN_MOVE;
+	}
+
+	/**
+	 * Sets the destination of the prompts of a strategy which asks for its moves, as a human does. Other strategies
+	 * ignore it.
+	 * @param output the destination of the prompts.
+	 */
+	default void setOutput(MessageOutput output){
+	}
+}
@@ -0,0 +1,12 @@
+/**
+ * The StrategyFactory interface creates the strategies of a single player type, one for every player.
+ */
+public interface StrategyFactory {
+
+	/**
+	 * Creates a new strategy, with a state of its own.
+	 * @param input the source of the integers a human player enters, which may be null for computer players.
+	 * @return the strategy.
+	 */
+	Strategy create(IntInput input);
+}
@@ -0,0 +1,118 @@
+import java.util.Locale;
+
+/**
+ * The StrategyRegistry class maps the player types to their names and to the factories of their strategies. A type
+ * is a small positive integer, as given to the Player constructor and to Competition.main, and every type also has a
+ * name, which Competition.main accepts as well. The built-in types are registered when the class is loaded, and new
+ * types can be registered by their own code, so new strategies do not require any change to Player. The moves of
+ * the Heuristic and the Smart strategies only depend on the lengths of the segments, so they are kept in a
+ * CachingStrategy when the system property nim.cache.capacity asks for one.
+ */
+public class StrategyRegistry {
+
+	/**
+	 * The largest type a strategy can be registered under. It sizes the tables kept per type by GameStatistics and
+	 * GameReplay, and is well within the byte a game record keeps every type in.
+	 */
+	public static final int MAX_PLAYER_TYPE = 15;
+
+	private static final String[] names = new String[MAX_PLAYER_TYPE+1];
+	private static final StrategyFactory[] factories = new StrategyFactory[MAX_PLAYER_TYPE+1];
+
+	static {
+		register(Player.RANDOM, "Random", input -> new RandomStrategy());
+		register(Player.HEURISTIC, "Heuristic", input -> CachingStrategy.fromSystemProperties(new HeuristicStrategy()));
+		register(Player.SMART, "Smart", input -> CachingStrategy.fromSystemProperties(new SmartStrategy()));
+		register(Player.HUMAN, "Human", HumanStrategy::new);
+		register(Player.MONTE_CARLO, "Monte Carlo", input -> MonteCarloSearch.fromSystemProperties());
+		register(Player.NEGAMAX, "Negamax", input -> NegamaxSearch.fromSystemProperties());
+	}
+
+	private StrategyRegistry(){
+	}
+
+	/**
+	 * Registers a new player type.
+	 * @param type the type, between 1 and MAX_PLAYER_TYPE.
+	 * @param name the name of the type, as shown to the user.
+	 * @param factory the factory of the strategies of the players of the type.
+	 * @throws IllegalArgumentException if the type is out of range, or the type or the name is already registered.
+	 */
+	public static synchronized void register(int type, String name, StrategyFactory factory){
+		if (type < 1 || type > MAX_PLAYER_TYPE){
+			throw new IllegalArgumentException("Player type out of range: "+type);
+		}
+		if (factories[type] != null || findType(name) != -1){
+			throw new IllegalArgumentException("Player type already registered: "+type+" ("+name+")");
+		}
+		names[type] = name;
+		factories[type] = factory;
+	}
+
+	/**
+	 * @return true if a strategy is registered under the given type.
+	 */
+	public static synchronized boolean isRegistered(int type){
+		return type >= 1 && type <= MAX_PLAYER_TYPE && factories[type] != null;
+	}
+
+	/**
+	 * @return the name of the given type, or null if it is not registered.
+	 */
+	public static synchronized String getName(int type){
+		return isRegistered(type) ? names[type] : null;
+	}
+
+	/**
+	 * Creates a new strategy of the given type.
+	 * @param type a registered type.
+	 * @param input the source of the integers a human player enters, which may be null for computer players.
+	 * @return the strategy.
+	 * @throws IllegalArgumentException if the type is not registered.
+	 */
+	public static Strategy create(int type, IntInput input){
+		StrategyFactory factory;
+		synchronized (StrategyRegistry.class){
+			factory = isRegistered(type) ? factories[type] : null;
+		}
+		if (factory == null){
+			throw new IllegalArgumentException("Unknown player type: "+type);
+		}
+		return factory.create(input);
+	}
+
+	/**
+	 * Returns the type given by its number or by its name. Names are matched ignoring case and any character which is
+	 * not a letter or a digit, so "Monte Carlo", "monte-carlo" and "montecarlo" are the same name.
+	 * @param text the number or the name of the type.
+	 * @return the type, or -1 if no type has the given number or name.
+	 */
+	public static synchronized int lookup(String text){
+		if (text == null){
+			return -1;
+		}
+		try {
+			int type = Integer.parseInt(text.trim());
+			return isRegistered(type) ? type : -1;
+		} catch (NumberFormatException e){
+			return findType(text);
+		}
+	}
+
+	/**
+	 * @return the type registered under the given name, or -1 if there is none.
+	 */
+	private static int findType(String name){
+		String key = normalize(name);
+		for (int type = 1; type <= MAX_PLAYER_TYPE; type++){
+			if (names[type] != null && normalize(names[type]).equals(key)){
+				return type;
+			}
+		}
+		return -1;
+	}
+
+	private static String normalize(String name){
+		return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+	}
+}
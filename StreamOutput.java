@@ -0,0 +1,99 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The StreamOutput class writes messages to an output stream, such as the stream of a socket, one line each. The
+ * messages are held in a small buffer until it is full or the output is flushed, so a session which is waiting for
+ * its player holds little memory. Lines always end with a line feed, whatever the platform, so clients can read them
+ * the same way everywhere.
+ * <p>
+ * The buffer is guarded by a ReentrantLock rather than by a monitor, and the messages are encoded into it directly
+ * instead of through a Writer, which synchronizes too: a virtual thread which blocks on the socket while it holds a
+ * monitor pins its carrier thread, while one holding a ReentrantLock lets the carrier run other sessions.
+ */
+public class StreamOutput implements MessageOutput {
+
+	/** The number of bytes held before they are written to the stream. */
+	private static final int BUFFER_SIZE = 1 << 10;
+	private static final byte LINE_SEPARATOR = '\n';
+
+	private final OutputStream stream;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int count;
+
+	/**
+	 * @param stream the stream to write the messages to, in UTF-8.
+	 */
+	public StreamOutput(OutputStream stream){
+		this.stream = stream;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if the stream cannot be written, as when the other side has disconnected.
+	 */
+	@Override
+	public void println(String message){
+		byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+		lock.lock();
+		try {
+			write(bytes);
+			if (count == BUFFER_SIZE){
+				flushBuffer();
+			}
+			buffer[count++] = LINE_SEPARATOR;
+		} catch (IOException e){
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws UncheckedIOException if the stream cannot be written, as when the other side has disconnected.
+	 */
+	@Override
+	public void flush(){
+		lock.lock();
+		try {
+			flushBuffer();
+			stream.flush();
+		} catch (IOException e){
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the given bytes to the buffer, writing the buffer out whenever it fills. A message longer than the buffer
+	 * is written to the stream directly. Called with the lock held.
+	 */
+	private void write(byte[] bytes) throws IOException {
+		if (bytes.length >= BUFFER_SIZE){
+			flushBuffer();
+			stream.write(bytes);
+			return;
+		}
+		if (bytes.length > BUFFER_SIZE - count){
+			flushBuffer();
+		}
+		System.arraycopy(bytes, 0, buffer, count, bytes.length);
+		count += bytes.length;
+	}
+
+	/**
+	 * Writes the buffered bytes to the stream, without flushing the stream. Called with the lock held.
+	 */
+	private void flushBuffer() throws IOException {
+		if (count > 0){
+			stream.write(buffer, 0, count);
+			count = 0;
+		}
+	}
+}
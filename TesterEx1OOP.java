@@ -18,11 +18,22 @@
   									- Replaced \r with \r\n in test 18.
   03/04/2018 - version 2.3 - Mattan - Renamed main to match filename.
   03/04/2018 - version 2.4 - Mattan - Removed test 18 - check input error and added "Tests complete" message.
+  17/10/2026 - version 2.5 - Added board tests (19-22) - moves taken back, snapshots and the counts of the
+  									  board are compared to a board built from scratch.
+  17/10/2026 - version 2.6 - The hash of the board is compared too, and test 23 checks that different
+  									  positions get different hashes.
+  17/10/2026 - version 2.7 - Call playMultipleRounds, the method Competition has, instead of playMultiple,
+  									  so the tester compiles and the board tests run.
+  17/10/2026 - version 2.8 - Moves are taken back by unmarkLastSequence, from the undo stack of the board,
+  									  and test 20 checks the edges of the stack.
 
 
  */
 
 import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import java.util.Scanner;
 
 public class TesterEx1OOP {
@@ -36,6 +47,10 @@ public class TesterEx1OOP {
 	private static ByteArrayOutputStream baos = new ByteArrayOutputStream();
 	private static PrintStream printsRecorder = new PrintStream(baos);
 
+	// things that have to do with the board tests.
+	private static final long BOARD_TESTS_SEED = 2018;
+	private static final int BOARD_TESTS_GAMES = 2000;
+
 	public static void main(String[] args) {
 
 		Scanner scanner = new Scanner(System.in);
@@ -123,7 +138,7 @@ public class TesterEx1OOP {
 
 		// random vs random
 		//stopPrints();
-		competition.playMultiple(500);
+		competition.playMultipleRounds(500);
 		resumePrints();
 		test(competition.getPlayerScore(1) + competition.getPlayerScore(2) == 500, "13");
 		System.out.println(competition.getPlayerScore(1) + ", " + competition.getPlayerScore(2) +
@@ -132,14 +147,14 @@ public class TesterEx1OOP {
 		// random vs smart
 		stopPrints();
 		competition = new Competition(randPlayer1, smartPlayer2, false);
-		competition.playMultiple(1000);
+		competition.playMultipleRounds(1000);
 		resumePrints();
 		test(competition.getPlayerScore(2) - 100 > competition.getPlayerScore(1), "14");
 
 		// smart vs random
 		stopPrints();
 		competition = new Competition(smartPlayer1, randPlayer2, false);
-		competition.playMultiple(1000);
+		competition.playMultipleRounds(1000);
 		resumePrints();
 		test(competition.getPlayerScore(1) - 100 > competition.getPlayerScore(2), "15");
 
@@ -147,6 +162,14 @@ public class TesterEx1OOP {
 		title("Human tests");
 		test(testHuman(true), "16"); // test prints verbose mode. (with red lines)
 		test(testHuman(false), "17"); // test prints no verbose mode.
+
+		// board tests
+		title("Board tests");
+		test(testMakeUnmake(), "19");
+		test(testUnmakeEdges(), "20");
+		test(testSnapshotRestore(), "21");
+		test(testCanonicalKey(), "22");
+		test(testZobristHash(), "23");
 		System.out.println("Tests Complete!");
 //		 main function tests
 //		title("main function tests");
@@ -166,7 +189,7 @@ public class TesterEx1OOP {
 		Player human2 = new Player(4, 2, fakeScanner);
 		Competition competition = new Competition(human1, human2, isVerbose);
 		recordPrints();
-		competition.playMultiple(1);
+		competition.playMultipleRounds(1);
 		resumePrints();
 
 		String[] yourGame = getPrintRecordsAndReset().replace("\r", "").split("\n");// your game prints
@@ -340,6 +363,157 @@ public class TesterEx1OOP {
 	}
 
 
+	/*
+	play random games, and after every move and every move taken back, check the board against a board built
+	from scratch on the same sticks. all the moves are then taken back, which must bring back a clear board.
+	 */
+	private static boolean testMakeUnmake() {
+		Random random = new Random(BOARD_TESTS_SEED);
+		int[] moves = new int[Board.MAX_NUM_OF_MOVES];
+		int[] played = new int[new Board().getNumberOfUnmarkedSticks()];
+		for (int game = 0; game < BOARD_TESTS_GAMES; game++) {
+			Board board = new Board();
+			int numPlayed = 0;
+			while (board.getNumberOfUnmarkedSticks() > 0) {
+				int move = moves[random.nextInt(board.generateMoves(moves))];
+				if (board.markStickSequence(move) != 0 || !sameState(board)) {
+					return false;
+				}
+				played[numPlayed++] = move;
+				// now and then take a move back and play it again
+				if (random.nextInt(4) == 0) {
+					if (board.unmarkLastSequence() != move || !sameState(board) ||
+							board.markStickSequence(move) != 0) {
+						return false;
+					}
+				}
+			}
+			while (numPlayed > 0) {
+				if (board.unmarkLastSequence() != played[--numPlayed] || !sameState(board)) {
+					return false;
+				}
+			}
+			if (board.getBitboard() != new Board().getBitboard()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	check that there is nothing to take back on a new board or after a restore, that an illegal move is not kept
+	to be taken back, and that a copy takes back the moves of the board it was copied from.
+	 */
+	private static boolean testUnmakeEdges() {
+		Board board = new Board();
+		if (board.unmarkLastSequence() != Move.NO_MOVE || !sameState(board)) {
+			return false;
+		}
+		board.markStickSequence(Move.pack(1, 3, 5));
+		board.markStickSequence(Move.pack(2, 1, 7));
+		int before = board.getBitboard();
+		if (board.markStickSequence(Move.pack(1, 2, 4)) != -2 || // stick 3 is marked
+				board.markStickSequence(Move.pack(1, 5, 10)) != -1 || // row 1 has 9 sticks
+				board.getBitboard() != before) {
+			return false;
+		}
+		Board copy = new Board(board);
+		if (copy.unmarkLastSequence() != Move.pack(2, 1, 7) || copy.unmarkLastSequence() != Move.pack(1, 3, 5) ||
+				copy.unmarkLastSequence() != Move.NO_MOVE || copy.getBitboard() != new Board().getBitboard() ||
+				board.getBitboard() != before) {
+			return false;
+		}
+		board.restore(board.snapshot());
+		return board.unmarkLastSequence() == Move.NO_MOVE && board.getBitboard() == before && sameState(board);
+	}
+
+	/*
+	play random games, restoring snapshots taken along the way, on the same board and on another one.
+	 */
+	private static boolean testSnapshotRestore() {
+		Random random = new Random(BOARD_TESTS_SEED);
+		int[] moves = new int[Board.MAX_NUM_OF_MOVES];
+		Board other = new Board();
+		for (int game = 0; game < BOARD_TESTS_GAMES; game++) {
+			Board board = new Board();
+			int snapshot = board.snapshot();
+			while (board.getNumberOfUnmarkedSticks() > 0) {
+				if (random.nextInt(3) == 0) {
+					snapshot = board.snapshot();
+				}
+				board.markStickSequence(moves[random.nextInt(board.generateMoves(moves))]);
+			}
+			int end = board.snapshot();
+			board.restore(snapshot);
+			other.restore(end);
+			if (board.snapshot() != snapshot || !sameState(board) || other.snapshot() != end || !sameState(other)) {
+				return false;
+			}
+			other.copyFrom(board);
+			if (other.getBitboard() != snapshot || !sameState(other)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	check that positions with the same segment lengths have the same canonical key, wherever the segments are,
+	and that positions with other segment lengths do not.
+	 */
+	private static boolean testCanonicalKey() {
+		Board left = new Board(), right = new Board(), other = new Board();
+		left.markStickSequence(Move.pack(1, 1, 2)); // row 1 is left with a segment of 7
+		right.markStickSequence(Move.pack(1, 8, 9)); // row 1 is left with a segment of 7
+		other.markStickSequence(Move.pack(1, 4, 5)); // row 1 is left with segments of 3 and 4
+		Board moved = new Board();
+		moved.markStickSequence(Move.pack(2, 1, 2)); // row 2 is left with a segment of 5
+		moved.markStickSequence(Move.pack(3, 1, 5)); // and row 3 is cleared
+		Board swapped = new Board();
+		swapped.markStickSequence(Move.pack(2, 1, 7)); // row 2 is cleared, and row 3 keeps its 5 sticks
+		return left.getCanonicalKey() == right.getCanonicalKey() &&
+				left.getCanonicalKey() != other.getCanonicalKey() &&
+				moved.getCanonicalKey() == swapped.getCanonicalKey() &&
+				left.getCanonicalKey() != new Board().getCanonicalKey();
+	}
+
+	/*
+	play random games, and check that no two of the positions reached share a hash, and that every move changes
+	the hash.
+	 */
+	private static boolean testZobristHash() {
+		Random random = new Random(BOARD_TESTS_SEED);
+		int[] moves = new int[Board.MAX_NUM_OF_MOVES];
+		Map<Long, Integer> positions = new HashMap<>(); // the bitboard of every hash
+		for (int game = 0; game < BOARD_TESTS_GAMES; game++) {
+			Board board = new Board();
+			while (board.getNumberOfUnmarkedSticks() > 0) {
+				long before = board.getZobristHash();
+				board.markStickSequence(moves[random.nextInt(board.generateMoves(moves))]);
+				Integer known = positions.putIfAbsent(board.getZobristHash(), board.getBitboard());
+				if (board.getZobristHash() == before || (known != null && known != board.getBitboard())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/*
+	return true if the given board is in the same state as a board built from scratch on its sticks.
+	 */
+	private static boolean sameState(Board board) {
+		Board rebuilt = new Board(board.getBitboard());
+		return board.getNimSum() == rebuilt.getNimSum() &&
+				board.getNumberOfSingletonSegments() == rebuilt.getNumberOfSingletonSegments() &&
+				board.getNumberOfLargeSegments() == rebuilt.getNumberOfLargeSegments() &&
+				board.getNumberOfUnmarkedSticks() == rebuilt.getNumberOfUnmarkedSticks() &&
+				board.countLegalMoves() == rebuilt.countLegalMoves() &&
+				board.getCanonicalKey() == rebuilt.getCanonicalKey() &&
+				board.getZobristHash() == rebuilt.getZobristHash() &&
+				board.toString().equals(rebuilt.toString());
+	}
+
 	/*
 	print "pass" if "test" is true, print "failed" otherwise.
 	 */
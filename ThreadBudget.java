@@ -0,0 +1,43 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ThreadBudget class keeps the single budget of the threads the program runs on at once, a thread per processor,
+ * shared by everything which spreads its work over several threads: the parallel rounds of a Competition, the pool
+ * of a Tournament and the threads of the Monte Carlo searches. The thread which asks for threads already runs, so it
+ * is not counted; it takes the threads it adds to it from the budget, and gives them back once they are done.
+ * <p>
+ * Threads are never waited for: whoever asks for more threads than are left gets the ones which are left, and does
+ * its work on fewer threads. So a search made while the rounds are already played in parallel runs on the thread of
+ * its round alone, instead of multiplying the threads of the rounds.
+ */
+public final class ThreadBudget {
+
+	/** The threads left, beyond the thread of main which is always running. */
+	private static final AtomicInteger available = new AtomicInteger(Runtime.getRuntime().availableProcessors() - 1);
+
+	private ThreadBudget(){
+	}
+
+	/**
+	 * Takes up to the given number of threads from the budget, without waiting for any.
+	 * @param wanted the number of threads to add to the calling thread.
+	 * @return the number of threads taken, between 0 and the given number, which must be released once they are done.
+	 */
+	public static int acquire(int wanted){
+		while (true){
+			int left = available.get();
+			int granted = Math.max(0, Math.min(wanted, left));
+			if (granted == 0 || available.compareAndSet(left, left - granted)){
+				return granted;
+			}
+		}
+	}
+
+	/**
+	 * Gives the given number of threads, taken by acquire(), back to the budget.
+	 * @param threads the number of threads to give back.
+	 */
+	public static void release(int threads){
+		available.addAndGet(threads);
+	}
+}
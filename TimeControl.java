@@ -0,0 +1,90 @@
+/**
+ * The TimeControl class describes the time a player has for its moves in a round: either a fixed time for every
+ * move, or a clock holding a total time for all the moves of the round, which is increased by a fixed increment
+ * after every move. The time of a player is kept by whoever runs the round, in nanoseconds, and a TimeControl only
+ * tells it how much time a move may take and how much time is left after the move.
+ */
+public class TimeControl {
+
+	private static final long NANOS_PER_MILLI = 1000000L;
+	/** Separates the total time from the increment in the text form of a game clock, as in "60000+100". */
+	private static final String INCREMENT_SEPARATOR = "+";
+
+	private final boolean perMove;
+	private final long initialNanos; //the time of every move, or the total time of the round.
+	private final long incrementNanos;
+
+	private TimeControl(boolean perMove, long initialMillis, long incrementMillis){
+		if (initialMillis < 1 || incrementMillis < 0){
+			throw new IllegalArgumentException("Invalid time control");
+		}
+		this.perMove = perMove;
+		this.initialNanos = initialMillis * NANOS_PER_MILLI;
+		this.incrementNanos = incrementMillis * NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @param moveMillis the time of every move in milliseconds.
+	 * @return a time control giving every move the same time.
+	 */
+	public static TimeControl perMove(long moveMillis){
+		return new TimeControl(true, moveMillis, 0);
+	}
+
+	/**
+	 * @param totalMillis the total time of the moves of a player in a round, in milliseconds.
+	 * @param incrementMillis the time added to the clock of a player after each of its moves, in milliseconds.
+	 * @return a time control with a clock for every player in every round.
+	 */
+	public static TimeControl gameClock(long totalMillis, long incrementMillis){
+		return new TimeControl(false, totalMillis, incrementMillis);
+	}
+
+	/**
+	 * Parses a time control: a number of milliseconds for a fixed time per move, as in "200", or a total time and an
+	 * increment in milliseconds for a game clock, as in "60000+100".
+	 * @param text the time control.
+	 * @return the time control.
+	 * @throws IllegalArgumentException if the text is not a time control.
+	 */
+	public static TimeControl parse(String text){
+		int separator = text.indexOf(INCREMENT_SEPARATOR);
+		if (separator < 0){
+			return perMove(Long.parseLong(text.trim()));
+		}
+		return gameClock(Long.parseLong(text.substring(0, separator).trim()),
+				Long.parseLong(text.substring(separator + 1).trim()));
+	}
+
+	/**
+	 * @return the time on the clock of a player at the start of a round, in nanoseconds.
+	 */
+	public long getInitialNanos(){
+		return initialNanos;
+	}
+
+	/**
+	 * @param remainingNanos the time on the clock of the player.
+	 * @return the time the next move of the player may take, in nanoseconds.
+	 */
+	public long getMoveBudgetNanos(long remainingNanos){
+		return perMove ? initialNanos : remainingNanos;
+	}
+
+	/**
+	 * @param remainingNanos the time on the clock of the player before its move.
+	 * @param elapsedNanos the time the move took.
+	 * @return the time on the clock of the player after the move, in nanoseconds.
+	 */
+	public long update(long remainingNanos, long elapsedNanos){
+		return perMove ? initialNanos : Math.max(0, remainingNanos - elapsedNanos) + incrementNanos;
+	}
+
+	/**
+	 * @return the time control in the form parse() accepts.
+	 */
+	public String toString(){
+		return perMove ? Long.toString(initialNanos / NANOS_PER_MILLI) :
+				initialNanos / NANOS_PER_MILLI + INCREMENT_SEPARATOR + incrementNanos / NANOS_PER_MILLI;
+	}
+}
@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The Tournament class runs a round-robin tournament between several computer players. Every player plays every
+ * other player for the same number of rounds in each seat, as the first player always makes the first move. The
+ * results are printed as a cross table, as the rate of the wins of every player with a confidence interval, and as
+ * Elo ratings fitted to all the results.
+ * <p>
+ * The rounds of every pairing are split into tasks of a fixed number of rounds, and the tasks are run on a
+ * work-stealing pool, so the threads which finish the tasks of fast pairings take over the rest of the work. Every
+ * thread of the pool plays with players of its own, a player per player of the tournament and seat, which it creates
+ * on its first task with them and keeps for the tasks after it, as some players, such as the Negamax player with its
+ * search table, are costly to create. The wins of every task are added to the shared results once it is done. The
+ * threads of the pool are taken from the ThreadBudget, so the search players play on the thread of their task
+ * alone.
+ */
+public class Tournament {
+
+	/** The system property holding the number of threads of the pool, a thread per processor by default. */
+	private static final String THREADS_PROPERTY = "nim.tournament.threads";
+	/** The number of rounds of a task, small enough for the pool to balance the work of slow pairings. */
+	private static final int ROUNDS_PER_TASK = 50;
+	private static final int ID_1 = 1;
+	private static final int ID_2 = 2;
+	/** The z-score of the 95% confidence intervals of the win rates. */
+	private static final double Z_95 = 1.96;
+	/** The Elo ratings are fitted by the Bradley-Terry model, with a virtual win and a virtual loss between every two
+	 * players, so a player winning or losing every round still gets a finite rating. */
+	private static final double PRIOR_WINS = 1;
+	private static final int ELO_ITERATIONS = 1000;
+	private static final double ELO_TOLERANCE = 1e-9;
+	private static final double ELO_SCALE = 400;
+	private static final double ELO_MEAN = 1500;
+	private static final int PERCENT = 100;
+	private static final String USAGE_MSG = "Usage: java Tournament <rounds per pairing and seat> <player type>...";
+
+	private final int[] types;
+	private final String[] names;
+	private final long[][] wins; //wins[i][j] is the number of rounds player i won against player j.
+	//the players of every thread of the pool, by seat and by index, created when they are first needed.
+	private final ThreadLocal<Player[][]> threadPlayers;
+
+	/**
+	 * Initializes a tournament between players of the given types. A type may appear more than once.
+	 * @param types the types of the players, none of which is the human player.
+	 */
+	public Tournament(int[] types){
+		this.types = types.clone();
+		names = new String[types.length];
+		wins = new long[types.length][types.length];
+		threadPlayers = ThreadLocal.withInitial(() -> new Player[ID_2][types.length]);
+		for (int i = 0; i < types.length; i++){
+			int sameTypeBefore = 0;
+			for (int j = 0; j < i; j++){
+				if (types[j] == types[i]){
+					sameTypeBefore++;
+				}
+			}
+			names[i] = StrategyRegistry.getName(types[i]) + (sameTypeBefore == 0 ? "" : " #" + (sameTypeBefore + 1));
+		}
+	}
+
+	/**
+	 * Plays the given number of rounds between every two players in each seat, on the given number of threads.
+	 * @param roundsPerPairing the number of rounds of every ordered pair of players.
+	 * @param numThreads the number of threads to play on.
+	 */
+	public void play(int roundsPerPairing, int numThreads){
+		List<Callable<long[]>> tasks = new ArrayList<>();
+		for (int first = 0; first < types.length; first++){
+			for (int second = 0; second < types.length; second++){
+				if (first == second){
+					continue;
+				}
+				for (int done = 0; done < roundsPerPairing; done += ROUNDS_PER_TASK){
+					int firstPlayer = first, secondPlayer = second;
+					int taskRounds = Math.min(ROUNDS_PER_TASK, roundsPerPairing - done);
+					tasks.add(() -> playMatch(firstPlayer, secondPlayer, taskRounds));
+				}
+			}
+		}
+		ExecutorService pool = Executors.newWorkStealingPool(numThreads);
+		int reservedThreads = ThreadBudget.acquire(numThreads - 1);
+		try {
+			for (Future<long[]> result : pool.invokeAll(tasks)){
+				long[] match = result.get();
+				int first = (int) match[0], second = (int) match[1];
+				wins[first][second] += match[2];
+				wins[second][first] += match[3];
+			}
+		} catch (InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while playing the tournament", e);
+		} catch (ExecutionException e){
+			throw new IllegalStateException("A match could not be played", e.getCause());
+		} finally {
+			pool.shutdownNow();
+			ThreadBudget.release(reservedThreads);
+		}
+	}
+
+	/**
+	 * Plays the given number of rounds between the players of the given indices of the calling thread, without any
+	 * message.
+	 * @return the indices of the players followed by the number of wins of each of them.
+	 */
+	private long[] playMatch(int first, int second, int numRounds){
+		Competition competition = new Competition(getThreadPlayer(first, ID_1), getThreadPlayer(second, ID_2), false);
+		competition.playRoundsQuietly(numRounds);
+		return new long[]{first, second, competition.getPlayerScore(ID_1), competition.getPlayerScore(ID_2)};
+	}
+
+	/**
+	 * Returns the player of the given index and seat of the calling thread, creating it on the first call.
+	 * @param index the index of the player in the tournament.
+	 * @param id the seat of the player, 1 or 2.
+	 */
+	private Player getThreadPlayer(int index, int id){
+		Player[] seat = threadPlayers.get()[id - 1];
+		if (seat[index] == null){
+			seat[index] = new Player(types[index], id);
+		}
+		return seat[index];
+	}
+
+	/**
+	 * @return the number of rounds player i won against player j.
+	 */
+	public long getWins(int i, int j){
+		return wins[i][j];
+	}
+
+	/**
+	 * Returns the Wilson score interval of a rate of successes, which stays within 0 and 1 and is reasonable even
+	 * for few rounds and for rates close to 0 or 1.
+	 * @param successes the number of successes.
+	 * @param trials the number of trials, which must be positive.
+	 * @return the lower and the upper bounds of the 95% confidence interval of the rate.
+	 */
+	static double[] wilsonInterval(long successes, long trials){
+		double rate = (double) successes / trials, zSquared = Z_95 * Z_95;
+		double center = (rate + zSquared / (2 * trials)) / (1 + zSquared / trials);
+		double margin = Z_95 * Math.sqrt(rate * (1 - rate) / trials + zSquared / (4.0 * trials * trials)) /
+				(1 + zSquared / trials);
+		return new double[]{center - margin, center + margin};
+	}
+
+	/**
+	 * Fits Elo ratings to the results by the Bradley-Terry model, using the minorization-maximization iterations,
+	 * and shifts them so their mean is ELO_MEAN.
+	 * @return the rating of every player.
+	 */
+	public double[] computeEloRatings(){
+		int n = types.length;
+		double[] strengths = new double[n];
+		Arrays.fill(strengths, 1);
+		for (int iteration = 0; iteration < ELO_ITERATIONS; iteration++){
+			double maxChange = 0;
+			for (int i = 0; i < n; i++){
+				double totalWins = 0, denominator = 0;
+				for (int j = 0; j < n; j++){
+					if (i != j){
+						totalWins += wins[i][j] + PRIOR_WINS;
+						denominator += (wins[i][j] + wins[j][i] + 2 * PRIOR_WINS) / (strengths[i] + strengths[j]);
+					}
+				}
+				double updated = totalWins / denominator;
+				maxChange = Math.max(maxChange, Math.abs(updated - strengths[i]) / strengths[i]);
+				strengths[i] = updated;
+			}
+			if (maxChange < ELO_TOLERANCE){
+				break;
+			}
+		}
+		double[] ratings = new double[n];
+		double mean = 0;
+		for (int i = 0; i < n; i++){
+			ratings[i] = ELO_SCALE * Math.log10(strengths[i]);
+			mean += ratings[i] / n;
+		}
+		for (int i = 0; i < n; i++){
+			ratings[i] += ELO_MEAN - mean;
+		}
+		return ratings;
+	}
+
+	/**
+	 * @return a multi-line report of the results: the cross table, the win rates and the Elo ratings.
+	 */
+	public String toString(){
+		int n = types.length, width = 4;
+		for (String name : names){
+			width = Math.max(width, name.length());
+		}
+		String cell = "%" + (width + 2) + "s";
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-" + width + "s", "")).append("  (wins of the row against the column)\n");
+		report.append(String.format("%-" + width + "s", ""));
+		for (int j = 0; j < n; j++){
+			report.append(String.format(cell, names[j]));
+		}
+		report.append('\n');
+		for (int i = 0; i < n; i++){
+			report.append(String.format("%-" + width + "s", names[i]));
+			for (int j = 0; j < n; j++){
+				report.append(String.format(cell, i == j ? "-" : Long.toString(wins[i][j])));
+			}
+			report.append('\n');
+		}
+		double[] ratings = computeEloRatings();
+		report.append('\n');
+		for (int i = 0; i < n; i++){
+			long totalWins = 0, totalRounds = 0;
+			for (int j = 0; j < n; j++){
+				totalWins += wins[i][j];
+				totalRounds += wins[i][j] + wins[j][i];
+			}
+			report.append(String.format("%-" + width + "s", names[i]));
+			if (totalRounds > 0){
+				double[] interval = wilsonInterval(totalWins, totalRounds);
+				report.append(String.format("  won %d of %d (%.1f%%, 95%% CI %.1f%%-%.1f%%)", totalWins, totalRounds,
+						totalWins * (double) PERCENT / totalRounds, interval[0] * PERCENT, interval[1] * PERCENT));
+			}
+			report.append(String.format("  Elo %.0f%n", ratings[i]));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Runs a tournament between the given players, and prints its results.
+	 * @param args the number of rounds of every pairing in each seat, followed by the types of the players, given
+	 * like the types of Competition.main, by number or by name.
+	 */
+	public static void main(String[] args){
+		if (args.length < 3){
+			System.out.println(USAGE_MSG);
+			return;
+		}
+		int roundsPerPairing;
+		try {
+			roundsPerPairing = Integer.parseInt(args[0]);
+		} catch (NumberFormatException e){
+			roundsPerPairing = -1;
+		}
+		if (roundsPerPairing < 1){
+			System.out.println(USAGE_MSG);
+			return;
+		}
+		int[] types = new int[args.length - 1];
+		for (int i = 1; i < args.length; i++){
+			types[i - 1] = StrategyRegistry.lookup(args[i]);
+			if (types[i - 1] == -1 || types[i - 1] == Player.HUMAN){
+				System.out.println("Not a computer player type: " + args[i]);
+				return;
+			}
+		}
+		Tournament tournament = new Tournament(types);
+		long start = System.nanoTime();
+		tournament.play(roundsPerPairing, Integer.getInteger(THREADS_PROPERTY,
+				Runtime.getRuntime().availableProcessors()));
+		System.out.print(tournament);
+		System.out.println("Played in " + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+}
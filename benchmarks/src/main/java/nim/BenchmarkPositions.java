@@ -0,0 +1,75 @@
+package nim;
+
+import java.util.Random;
+
+/**
+ * The BenchmarkPositions class builds the fixed corpus of mid-game positions the benchmarks run over. The positions
+ * are reached by random legal moves from a clear board, using a fixed seed, so every run of the benchmarks measures
+ * exactly the same positions.
+ */
+public class BenchmarkPositions {
+
+	/** The number of positions in the corpus. */
+	public static final int NUM_OF_POSITIONS = 1024;
+	private static final long SEED = 20180329L;
+	/** The positions of the corpus have between these numbers of unmarked sticks. */
+	private static final int MIN_UNMARKED_STICKS = 6;
+	private static final int MAX_UNMARKED_STICKS = 18;
+
+	private final Board[] boards = new Board[NUM_OF_POSITIONS];
+	private final Move[] legalMoves = new Move[NUM_OF_POSITIONS];
+
+	/**
+	 * Builds the corpus, together with one legal move for every position.
+	 */
+	public BenchmarkPositions(){
+		Random random = new Random(SEED);
+		for (int i = 0; i < NUM_OF_POSITIONS; i++){
+			int targetSticks = MIN_UNMARKED_STICKS + random.nextInt(MAX_UNMARKED_STICKS - MIN_UNMARKED_STICKS + 1);
+			Board board = new Board();
+			while (board.getNumberOfUnmarkedSticks() > targetSticks){
+				board.markStickSequence(randomLegalMove(board, random));
+			}
+			boards[i] = board;
+			legalMoves[i] = randomLegalMove(board, random);
+		}
+	}
+
+	/**
+	 * @return a copy of the position with the given index, which can be played on without changing the corpus.
+	 */
+	public Board copyBoard(int index){
+		return new Board(boards[index]);
+	}
+
+	/**
+	 * @return the position with the given index, which must not be played on.
+	 */
+	public Board getBoard(int index){
+		return boards[index];
+	}
+
+	/**
+	 * @return a legal move on the position with the given index.
+	 */
+	public Move getLegalMove(int index){
+		return legalMoves[index];
+	}
+
+	/**
+	 * Returns a random legal move on the given board, which must have at least one unmarked stick: a random unmarked
+	 * stick, extended to the right over a random number of unmarked sticks.
+	 */
+	private static Move randomLegalMove(Board board, Random random){
+		int row, left;
+		do {
+			row = 1 + random.nextInt(board.getNumberOfRows());
+			left = 1 + random.nextInt(board.getRowLength(row));
+		} while (!board.isStickUnmarked(row, left));
+		int right = left;
+		while (board.isStickUnmarked(row, right + 1) && random.nextBoolean()){
+			right++;
+		}
+		return new Move(row, left, right);
+	}
+}
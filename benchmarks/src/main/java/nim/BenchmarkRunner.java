@@ -0,0 +1,31 @@
+package nim;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all the benchmarks with the gc profiler, so the results hold the allocation rate of every benchmark next to
+ * its time per operation. The results are also written as JSON, to compare runs before and after a change.
+ */
+public class BenchmarkRunner {
+
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	/**
+	 * @param args an optional regular expression selecting the benchmarks to run, and an optional path of the JSON
+	 * result file.
+	 */
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : ".*Benchmark")
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(args.length > 1 ? args[1] : DEFAULT_RESULT_FILE)
+				.build();
+		new Runner(options).run();
+	}
+}
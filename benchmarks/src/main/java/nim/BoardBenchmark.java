@@ -0,0 +1,81 @@
+package nim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the Board operations used by every strategy, over the corpus of mid-game positions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+	private BenchmarkPositions positions;
+	private int index;
+	private final int[] moveBuffer = new int[Board.MAX_NUM_OF_MOVES];
+
+	@Setup
+	public void setUp(){
+		positions = new BenchmarkPositions();
+	}
+
+	/**
+	 * @return the index of the next position of the corpus to run over.
+	 */
+	private int nextIndex(){
+		index = (index + 1) & (BenchmarkPositions.NUM_OF_POSITIONS - 1);
+		return index;
+	}
+
+	/**
+	 * Marks a legal move on a fresh copy of a position. The copy is part of the measurement, as it is for any
+	 * caller who wants to keep the original position.
+	 */
+	@Benchmark
+	public int markStickSequence(){
+		int i = nextIndex();
+		Board board = positions.copyBoard(i);
+		return board.markStickSequence(positions.getLegalMove(i));
+	}
+
+	/**
+	 * Queries every stick of a position, the way the strategies scan the board.
+	 */
+	@Benchmark
+	public void isStickUnmarked(Blackhole blackhole){
+		Board board = positions.getBoard(nextIndex());
+		for (int row = 1; row < board.getNumberOfRows() + 1; row++){
+			for (int stick = 1; stick < board.getRowLength(row) + 1; stick++){
+				blackhole.consume(board.isStickUnmarked(row, stick));
+			}
+		}
+	}
+
+	/**
+	 * Writes all the legal moves of a position to a reused buffer.
+	 */
+	@Benchmark
+	public int generateMoves(){
+		return positions.getBoard(nextIndex()).generateMoves(moveBuffer);
+	}
+
+	@Benchmark
+	public String boardToString(){
+		return positions.getBoard(nextIndex()).toString();
+	}
+}
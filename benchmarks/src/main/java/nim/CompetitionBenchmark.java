@@ -0,0 +1,65 @@
+package nim;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of whole games, played by Competition.playMultipleRounds in non-verbose mode. The score is the time of a
+ * single round. The two lines the competition prints anyway are sent to a stream which discards them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompetitionBenchmark {
+
+	private static final int ROUNDS_PER_INVOCATION = 100;
+
+	/** The types of the first and the second player, as given to the Player constructor. */
+	@Param({"1:1", "1:2", "1:3", "2:3", "3:3"})
+	public String playerTypes;
+
+	private Player player1;
+	private Player player2;
+	private PrintStream originalOut;
+
+	@Setup
+	public void setUp(){
+		String[] types = playerTypes.split(":");
+		player1 = new Player(Integer.parseInt(types[0]), 1);
+		player2 = new Player(Integer.parseInt(types[1]), 2);
+		NimSolver.getTable();
+		originalOut = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+	}
+
+	@TearDown
+	public void tearDown(){
+		System.setOut(originalOut);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROUNDS_PER_INVOCATION)
+	public int playMultipleRounds(){
+		Competition competition = new Competition(player1, player2, false);
+		competition.playMultipleRounds(ROUNDS_PER_INVOCATION);
+		return competition.getPlayerScore(1);
+	}
+}
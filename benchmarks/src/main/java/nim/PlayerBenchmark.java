@@ -0,0 +1,63 @@
+package nim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of Player.produceMove for every computer strategy, over the corpus of mid-game positions. The outcomes
+ * used by the Smart player are loaded during the setup, so they are not part of the measurement. The Heuristic and
+ * the Smart players are measured both as they are and wrapped in a CachingStrategy, which is given room for every
+ * position of the corpus, so the cached runs measure the hits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerBenchmark {
+
+	/** The player type, as given to the Player constructor: 1 for Random, 2 for Heuristic and 3 for Smart. */
+	@Param({"1", "2", "3"})
+	public int playerType;
+
+	/** The number of moves the CachingStrategy of the Heuristic and the Smart players keeps, 0 for no cache. */
+	@Param({"0", "4096"})
+	public int cacheCapacity;
+
+	private BenchmarkPositions positions;
+	private Player player;
+	private int index;
+
+	@Setup
+	public void setUp(){
+		positions = new BenchmarkPositions();
+		//the strategy reads the capacity of its cache when it is created, and every run has a JVM of its own
+		System.setProperty("nim.cache.capacity", Integer.toString(cacheCapacity));
+		player = new Player(playerType, 1);
+		NimSolver.getTable();
+	}
+
+	@Benchmark
+	public Move produceMove(){
+		index = (index + 1) & (BenchmarkPositions.NUM_OF_POSITIONS - 1);
+		return player.produceMove(positions.getBoard(index));
+	}
+
+	@Benchmark
+	public int produceMovePacked(){
+		index = (index + 1) & (BenchmarkPositions.NUM_OF_POSITIONS - 1);
+		return player.produceMovePacked(positions.getBoard(index));
+	}
+}